@@ -1,20 +1,30 @@
 package translation.modid;
 
 import net.fabricmc.api.ClientModInitializer;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientBlockEntityEvents;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientChunkEvents;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientEntityEvents;
 import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientLifecycleEvents;
 import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
 import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
+import net.fabricmc.fabric.api.client.rendering.v1.WorldRenderEvents;
+import net.minecraft.world.level.block.entity.SignBlockEntity;
+import translation.modid.bossbar.BossBarTranslationManager;
 import translation.modid.cache.TranslationCacheManager;
+import translation.modid.chat.ChatHoverPrefetcher;
+import translation.modid.chat.ChatTranslationPipeline;
 import translation.modid.config.TranslationConfig;
+import translation.modid.hud.HudStabilityGate;
 import translation.modid.keybinding.ModKeyBindings;
+import translation.modid.scoreboard.ScoreboardTranslationManager;
 import translation.modid.screen.ConfigScreen;
+import translation.modid.sign.SignIndex;
 import translation.modid.sign.SignTranslationManager;
 import translation.modid.textdisplay.TextDisplayRefreshManager;
 import translation.modid.tooltip.TooltipTranslationHandler;
 import translation.modid.translator.TranslationManager;
 
 public class SimpleTranslationClient implements ClientModInitializer {
-    private int tickCounter = 0;
     private boolean wasSneaking = false; // 跟踪上一次的潜行状态
     private boolean lastTranslateTextDisplayState = false; // 跟踪上一次的文字显示实体翻译状态
     
@@ -48,48 +58,66 @@ public class SimpleTranslationClient implements ClientModInitializer {
             if (client.player != null && client.level != null) {
                 TranslationConfig config = TranslationConfig.getInstance();
                 
+                // 世界切换时清空文字显示实体的关联
+                TextDisplayRefreshManager.getInstance().checkLevel(client.level);
+                
                 // 检查文字显示实体翻译配置是否发生变化
                 boolean currentTranslateTextDisplayState = config.enabled && config.autoTranslate && config.translateTextDisplay;
                 if (lastTranslateTextDisplayState != currentTranslateTextDisplayState) {
-                    if (lastTranslateTextDisplayState && !currentTranslateTextDisplayState) {
-                        // 从开启变为关闭，恢复所有实体的原始文本
-                        restoreAllTextDisplayOriginalTexts();
-                    } else if (!lastTranslateTextDisplayState && currentTranslateTextDisplayState) {
-                        // 从关闭变为开启，强制刷新所有实体以触发重新翻译
-                        forceRefreshAllTextDisplays();
-                    }
+                    // 译文只在渲染时替换，开关变化后让所有实体重新读取文本即可（关闭时显示原文，开启时触发翻译）
+                    TextDisplayRefreshManager.getInstance().refreshAllTextDisplays();
                 }
                 lastTranslateTextDisplayState = currentTranslateTextDisplayState;
                 
-                // 强制刷新所有待更新的 TextDisplay
-                if (currentTranslateTextDisplayState) {
-                    TextDisplayRefreshManager.getInstance().forceRefreshPendingTextDisplays();
-                }
-                
                 if (config.translateSignOnSneak) {
                     // 潜行触发模式：检测玩家从不潜行到潜行的变化
                     boolean isSneaking = client.player.isCrouching();
                     
                     if (isSneaking && !wasSneaking) {
-                        // 玩家刚开始潜行，触发翻译
+                        // 玩家刚开始潜行，触发一轮扫描
                         SignTranslationManager.getInstance().translateNearbySigns();
                     }
                     
                     wasSneaking = isSneaking;
-                } else {
-                    // 定时模式：每40个tick（2秒）自动翻译
-                    tickCounter++;
-                    if (tickCounter >= 40) {
-                        tickCounter = 0;
-                        SignTranslationManager.getInstance().translateNearbySigns();
-                    }
                 }
+                // 每tick在时间预算内推进告示牌扫描和翻译队列；定时模式下持续扫描
+                SignTranslationManager.getInstance().tick(!config.translateSignOnSneak);
+                
+                // 把这一tick的数据包带来的计分板文本合并为批量翻译
+                ScoreboardTranslationManager.getInstance().flush();
+                // 已经稳定的HUD文本（actionbar、标题、boss血条、文字显示实体）合并为批量翻译
+                HudStabilityGate.getInstance().tick();
+                // 合并提交排队的聊天消息
+                ChatTranslationPipeline.getInstance().tick();
             }
         });
         
         // 初始化翻译管理器
         TranslationManager.getInstance();
         
+        // 维护告示牌索引，告示牌扫描只访问索引中的告示牌
+        ClientChunkEvents.CHUNK_LOAD.register((level, chunk) -> SignIndex.getInstance().onChunkLoad(chunk));
+        ClientChunkEvents.CHUNK_UNLOAD.register((level, chunk) -> {
+            SignIndex.getInstance().onChunkUnload(chunk);
+            SignTranslationManager.getInstance().onChunkUnloaded(chunk);
+        });
+        // 记录每帧的视锥体，告示牌翻译队列优先处理视野内的告示牌
+        WorldRenderEvents.AFTER_SETUP.register(context -> SignTranslationManager.getInstance().setFrustum(context.frustum()));
+        ClientBlockEntityEvents.BLOCK_ENTITY_LOAD.register((blockEntity, level) -> {
+            SignIndex.getInstance().onBlockEntityLoad(blockEntity);
+            if (blockEntity instanceof SignBlockEntity sign) {
+                SignTranslationManager.getInstance().onSignTextChanged(sign);
+            }
+        });
+        ClientBlockEntityEvents.BLOCK_ENTITY_UNLOAD.register((blockEntity, level) -> {
+            SignIndex.getInstance().onBlockEntityUnload(blockEntity);
+            if (blockEntity instanceof SignBlockEntity) {
+                SignTranslationManager.getInstance().onSignUnloaded(blockEntity.getBlockPos());
+            }
+        });
+        // 文字显示实体卸载时移除其关联
+        ClientEntityEvents.ENTITY_UNLOAD.register((entity, level) -> TextDisplayRefreshManager.getInstance().onEntityUnload(entity));
+        
         // 注册世界加入事件，切换缓存
         ClientPlayConnectionEvents.JOIN.register((handler, sender, client) -> {
             TranslationConfig config = TranslationConfig.getInstance();
@@ -102,6 +130,14 @@ public class SimpleTranslationClient implements ClientModInitializer {
         
         // 注册世界离开事件，保存缓存
         ClientPlayConnectionEvents.DISCONNECT.register((handler, client) -> {
+            SignIndex.getInstance().clear();
+            SignTranslationManager.getInstance().clearPositions();
+            TextDisplayRefreshManager.getInstance().clearTracking();
+            ScoreboardTranslationManager.getInstance().clear();
+            BossBarTranslationManager.getInstance().clear();
+            HudStabilityGate.getInstance().clear();
+            ChatTranslationPipeline.getInstance().clear();
+            ChatHoverPrefetcher.getInstance().clear();
             TranslationConfig config = TranslationConfig.getInstance();
             if (config.persistentCache) {
                 TranslationCacheManager.getInstance().saveCache();
@@ -121,68 +157,6 @@ public class SimpleTranslationClient implements ClientModInitializer {
         SimpleTranslation.LOGGER.info("翻译客户端已初始化");
 	}
 	
-	/**
-	 * 强制刷新所有 TextDisplay 实体以触发重新翻译
-	 * 通过反射调用 Mixin 中的静态方法
-	 */
-	private void forceRefreshAllTextDisplays() {
-	    try {
-	        // 通过反射访问 Display.TextDisplay 类中的 Mixin 方法
-	        java.lang.reflect.Method refreshMethod = null;
-	        
-	        // 查找 forceRefreshAllTextDisplays 方法
-	        for (java.lang.reflect.Method method : net.minecraft.world.entity.Display.TextDisplay.class.getDeclaredMethods()) {
-	            if (method.getName().equals("forceRefreshAllTextDisplays") && 
-	                method.getParameterCount() == 0 &&
-	                java.lang.reflect.Modifier.isStatic(method.getModifiers())) {
-	                refreshMethod = method;
-	                break;
-	            }
-	        }
-	        
-	        if (refreshMethod != null) {
-	            refreshMethod.setAccessible(true);
-	            refreshMethod.invoke(null);
-	            SimpleTranslation.LOGGER.info("[TextDisplay] 已调用强制刷新所有文字显示实体方法");
-	        } else {
-	            SimpleTranslation.LOGGER.warn("[TextDisplay] 无法找到 forceRefreshAllTextDisplays 方法");
-	        }
-	    } catch (Exception e) {
-	        SimpleTranslation.LOGGER.error("[TextDisplay] 强制刷新所有文字显示实体时出错: {}", e.getMessage(), e);
-	    }
-	}
-	
-	/**
-	 * 恢复所有 TextDisplay 实体的原始文本
-	 * 通过反射调用 Mixin 中的静态方法
-	 */
-	private void restoreAllTextDisplayOriginalTexts() {
-	    try {
-	        // 通过反射访问 Display.TextDisplay 类中的 Mixin 方法
-	        java.lang.reflect.Method restoreMethod = null;
-	        
-	        // 查找 restoreAllOriginalTexts 方法
-	        for (java.lang.reflect.Method method : net.minecraft.world.entity.Display.TextDisplay.class.getDeclaredMethods()) {
-	            if (method.getName().equals("restoreAllOriginalTexts") && 
-	                method.getParameterCount() == 0 &&
-	                java.lang.reflect.Modifier.isStatic(method.getModifiers())) {
-	                restoreMethod = method;
-	                break;
-	            }
-	        }
-	        
-	        if (restoreMethod != null) {
-	            restoreMethod.setAccessible(true);
-	            restoreMethod.invoke(null);
-	            SimpleTranslation.LOGGER.info("[TextDisplay] 已调用恢复原始文本方法");
-	        } else {
-	            SimpleTranslation.LOGGER.warn("[TextDisplay] 无法找到 restoreAllOriginalTexts 方法");
-	        }
-	    } catch (Exception e) {
-	        SimpleTranslation.LOGGER.error("[TextDisplay] 恢复原始文本时出错: {}", e.getMessage(), e);
-	    }
-	}
-	
 	/**
 	 * 获取当前世界的名称
 	 */
@@ -0,0 +1,111 @@
+package translation.modid.bossbar;
+
+import net.minecraft.network.chat.Component;
+import net.minecraft.world.BossEvent;
+import translation.modid.cache.CacheNamespace;
+import translation.modid.cache.ComponentTranslationMemo;
+import translation.modid.cache.NamespacedTextCache;
+import translation.modid.config.TranslationConfig;
+import translation.modid.hud.HudStabilityGate;
+import translation.modid.translator.ScriptDetector;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * boss血条翻译管理器
+ * boss事件数据包处理完后（BossHealthOverlayMixin）检查所有boss名称：已有译文的直接替换名称，
+ * 没有译文的交给 HudStabilityGate（每个boss血条一个显示位置），名称稳定后才翻译，翻译完成后替换仍在显示该文本的boss名称。
+ * 渲染时不做任何翻译相关的工作。
+ */
+public class BossBarTranslationManager {
+    private static final BossBarTranslationManager INSTANCE = new BossBarTranslationManager();
+
+    private final NamespacedTextCache bossBarCache = new NamespacedTextCache();
+
+    private final ComponentTranslationMemo bossBarMemo = new ComponentTranslationMemo(64,
+            ScriptDetector::needsTranslation);
+
+    // 已在 HudStabilityGate 中登记的boss血条
+    private final Set<UUID> trackedBars = ConcurrentHashMap.newKeySet();
+
+    // BossHealthOverlay 的boss事件表（客户端只有一个实例，随游戏存在）
+    private volatile Map<UUID, ? extends BossEvent> events;
+
+    private BossBarTranslationManager() {
+    }
+
+    public static BossBarTranslationManager getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * boss事件数据包处理完后调用（主线程）
+     */
+    public void onBossEventsUpdated(Map<UUID, ? extends BossEvent> events) {
+        this.events = events;
+        TranslationConfig config = TranslationConfig.getInstance();
+        if (!config.enabled || !config.autoTranslate || !config.translateBossBar) {
+            return;
+        }
+        HudStabilityGate gate = HudStabilityGate.getInstance();
+        // 移除的boss血条不再等待翻译
+        trackedBars.removeIf(uuid -> {
+            if (events.containsKey(uuid)) {
+                return false;
+            }
+            gate.removeSlot(slotKey(uuid));
+            return true;
+        });
+        for (Map.Entry<UUID, ? extends BossEvent> bar : events.entrySet()) {
+            BossEvent bossEvent = bar.getValue();
+            Component name = bossEvent.getName();
+            if (name == null) {
+                continue;
+            }
+            // 已经替换过的译文组件会被记为不需要翻译，直接跳过
+            ComponentTranslationMemo.Entry entry = bossBarMemo.get(name);
+            Component translated = bossBarMemo.translated(entry, bossBarCache);
+            if (translated == null && entry.isTranslatable()) {
+                String text = entry.getText();
+                CacheNamespace namespace = CacheNamespace.current();
+                trackedBars.add(bar.getKey());
+                String result = gate.submit(slotKey(bar.getKey()), text, t -> onTranslated(namespace, text, t));
+                if (result != null) {
+                    bossBarCache.put(namespace, text, result);
+                    translated = bossBarMemo.translated(entry, bossBarCache);
+                }
+            }
+            if (translated != null) {
+                bossEvent.setName(translated);
+            }
+        }
+    }
+
+    /**
+     * 名称稳定后翻译完成（主线程），替换仍在显示该文本的boss名称
+     */
+    private void onTranslated(CacheNamespace namespace, String text, String translated) {
+        bossBarCache.put(namespace, text, translated);
+        Map<UUID, ? extends BossEvent> current = events;
+        if (current != null) {
+            onBossEventsUpdated(current);
+        }
+    }
+
+    /**
+     * 清空登记和备忘（断开连接时调用）
+     */
+    public void clear() {
+        HudStabilityGate gate = HudStabilityGate.getInstance();
+        trackedBars.forEach(uuid -> gate.removeSlot(slotKey(uuid)));
+        trackedBars.clear();
+        bossBarMemo.clear();
+    }
+
+    private static String slotKey(UUID uuid) {
+        return "bossbar:" + uuid;
+    }
+}
@@ -0,0 +1,98 @@
+package translation.modid.chat;
+
+import net.minecraft.network.chat.Component;
+import net.minecraft.network.chat.HoverEvent;
+import net.minecraft.network.chat.Style;
+import translation.modid.cache.CacheNamespace;
+import translation.modid.cache.ComponentTranslationMemo;
+import translation.modid.cache.NamespacedTextCache;
+import translation.modid.translator.ScriptDetector;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 聊天悬停文本预取
+ * 消息加入聊天栏时扫描其中的 SHOW_TEXT 悬停文本，作为低优先级的后台请求交给 ChatTranslationPipeline，
+ * 鼠标悬停时（ChatComponentMixin）只读取备忘和缓存，第一次悬停通常就能直接显示译文。
+ *
+ * 悬停文本组件按实例备忘，鼠标移动时不再重复展开组件树。
+ */
+public class ChatHoverPrefetcher {
+    private static final ChatHoverPrefetcher INSTANCE = new ChatHoverPrefetcher();
+
+    private final NamespacedTextCache hoverCache = new NamespacedTextCache();
+
+    private final ComponentTranslationMemo hoverMemo = new ComponentTranslationMemo(256, ScriptDetector::needsTranslation);
+
+    // 被丢弃或翻译失败的文本过多久后才重新请求（毫秒）
+    private static final long RETRY_DELAY = 30000;
+
+    // 文本 -> 请求状态：正在排队或翻译时为 0，被丢弃或失败后为当时的时间
+    private final Map<String, Long> requests = new ConcurrentHashMap<>();
+
+    private ChatHoverPrefetcher() {
+    }
+
+    public static ChatHoverPrefetcher getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 消息加入聊天栏时调用（主线程），预取消息中所有还没有译文的悬停文本
+     */
+    public void prefetch(Component message) {
+        message.visit((style, text) -> {
+            HoverEvent hoverEvent = style.getHoverEvent();
+            if (hoverEvent != null && hoverEvent.getAction() == HoverEvent.Action.SHOW_TEXT) {
+                Component hoverContent = hoverEvent.getValue(HoverEvent.Action.SHOW_TEXT);
+                if (hoverContent != null) {
+                    ComponentTranslationMemo.Entry entry = hoverMemo.get(hoverContent);
+                    if (hoverMemo.translated(entry, hoverCache) == null && entry.isTranslatable()) {
+                        request(entry.getText());
+                    }
+                }
+            }
+            return Optional.empty();
+        }, Style.EMPTY);
+    }
+
+    /**
+     * 悬停时调用（主线程），只读取备忘和缓存
+     * 预取被丢弃或消息早于开启翻译时，补充一次后台请求
+     * @return 译文组件（保留原样式），还没有译文时返回 null
+     */
+    public Component getTranslated(Component hoverContent) {
+        ComponentTranslationMemo.Entry entry = hoverMemo.get(hoverContent);
+        Component translated = hoverMemo.translated(entry, hoverCache);
+        if (translated == null && entry.isTranslatable()) {
+            request(entry.getText());
+        }
+        return translated;
+    }
+
+    /**
+     * 清空备忘和请求记录（断开连接时调用）
+     */
+    public void clear() {
+        hoverMemo.clear();
+        requests.clear();
+    }
+
+    private void request(String text) {
+        Long state = requests.get(text);
+        if (state != null && (state == 0L || System.currentTimeMillis() - state < RETRY_DELAY)) {
+            return;
+        }
+        requests.put(text, 0L);
+        CacheNamespace namespace = CacheNamespace.current();
+        ChatTranslationPipeline.getInstance().submitBackground(text,
+                translated -> {
+                    hoverCache.put(namespace, text, translated);
+                    requests.remove(text);
+                },
+                // 被丢弃或翻译失败后，过一段时间悬停时才重新请求，避免鼠标移动时反复请求
+                () -> requests.put(text, System.currentTimeMillis()));
+    }
+}
@@ -0,0 +1,76 @@
+package translation.modid.chat;
+
+import net.minecraft.client.GuiMessage;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 聊天消息句柄
+ * 消息加入聊天栏时记录对应的 GuiMessage 实例和分行后的 GuiMessage.Line 实例（都按引用识别），
+ * 译文到达时据此找到原消息和它的显示行，原地替换，而不是再发一条带译文的消息。
+ *
+ * 句柄同时记录消息的结构切分（ChatMessageSegments）和还在等待译文的正文，全部正文都有结果后才替换一次。
+ *
+ * 聊天栏被清空、消息被删除或超出历史长度后，句柄找不到对应实例，译文不再显示到这条消息上。
+ */
+public final class ChatLineHandle {
+    private GuiMessage message;
+    private List<GuiMessage.Line> lines;
+    private final int generation;
+    private final ChatMessageSegments segments;
+    private final Set<String> waitingBodies;
+
+    /**
+     * @param message       加入历史的消息
+     * @param lines         消息的显示行，按 trimmedMessages 中的顺序（最后一行在前）
+     * @param generation    记录时聊天栏显示行整体重建的次数
+     * @param segments      消息的结构切分
+     * @param waitingBodies 还没有译文的正文
+     */
+    public ChatLineHandle(GuiMessage message, List<GuiMessage.Line> lines, int generation,
+                          ChatMessageSegments segments, Set<String> waitingBodies) {
+        this.message = message;
+        this.lines = lines;
+        this.generation = generation;
+        this.segments = segments;
+        this.waitingBodies = new HashSet<>(waitingBodies);
+    }
+
+    public GuiMessage getMessage() {
+        return message;
+    }
+
+    public List<GuiMessage.Line> getLines() {
+        return lines;
+    }
+
+    /**
+     * 记录时聊天栏显示行整体重建的次数，与当前次数不同说明句柄中的显示行已经被替换
+     */
+    public int getGeneration() {
+        return generation;
+    }
+
+    public ChatMessageSegments getSegments() {
+        return segments;
+    }
+
+    /**
+     * 一段正文有了结果（翻译完成或被丢弃）
+     * @return 是否所有正文都有了结果
+     */
+    public boolean resolve(String body) {
+        waitingBodies.remove(body);
+        return waitingBodies.isEmpty();
+    }
+
+    /**
+     * 消息被原地替换后更新句柄
+     */
+    public void update(GuiMessage message, List<GuiMessage.Line> lines) {
+        this.message = message;
+        this.lines = lines;
+    }
+}
@@ -0,0 +1,209 @@
+package translation.modid.chat;
+
+import net.minecraft.network.chat.ClickEvent;
+import net.minecraft.network.chat.Component;
+import net.minecraft.network.chat.HoverEvent;
+import net.minecraft.network.chat.MutableComponent;
+import net.minecraft.network.chat.Style;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 聊天消息结构切分
+ * 按组件树展开后的带样式片段，把消息分为消息头（时间、头衔、发送者、分隔符）、正文和不翻译的片段（链接、@提及等可点击片段），
+ * 只翻译和缓存正文，不同发送者的相同内容（"gg"、"hello"）共用同一条缓存，请求中也不再带上消息头。
+ *
+ * 连续的正文片段合并为一段（使用第一个片段的样式）一起翻译，保持句子完整。
+ */
+public final class ChatMessageSegments {
+    // 头衔、频道标签：[VIP]、(Global)、【管理员】
+    private static final Pattern TAG_PATTERN = Pattern.compile("^\\s*[\\[(【][^\\])】]{1,24}[\\])】]\\s*$");
+
+    // 时间戳：12:30、[12:30:05]
+    private static final Pattern TIMESTAMP_PATTERN = Pattern.compile("^\\s*[\\[(]?\\d{1,2}:\\d{2}(?::\\d{2})?[\\])]?\\s*$");
+
+    // 同一片段中以文本形式出现的消息头（聊天插件常见格式）："<Name> "、"[前缀] Name: "、"Name » "
+    private static final Pattern INLINE_HEADER_PATTERN = Pattern.compile(
+            "^(?:\\s*[\\[(【][^\\])】]{1,24}[\\])】])*\\s*(?:<([A-Za-z0-9_]{3,16})>|([A-Za-z0-9_]{3,16})\\s*[:»])\\s*");
+
+    private static final Pattern URL_PATTERN = Pattern.compile("^\\s*(?:https?://|www\\.)\\S+\\s*$");
+
+    // 消息头之后的片段（正文已合并）
+    private final List<Piece> pieces;
+    private final List<String> bodyTexts;
+    private final String senderName;
+
+    private ChatMessageSegments(List<Piece> pieces, String senderName) {
+        this.pieces = pieces;
+        this.senderName = senderName;
+        List<String> bodies = new ArrayList<>();
+        for (Piece piece : pieces) {
+            if (piece.body && !bodies.contains(piece.text)) {
+                bodies.add(piece.text);
+            }
+        }
+        this.bodyTexts = Collections.unmodifiableList(bodies);
+    }
+
+    /**
+     * 切分消息
+     * @return 切分结果，没有正文时返回 null
+     */
+    public static ChatMessageSegments of(Component message) {
+        List<Piece> raw = new ArrayList<>();
+        message.visit((style, text) -> {
+            if (!text.isEmpty()) {
+                raw.add(new Piece(style, text, false));
+            }
+            return Optional.empty();
+        }, Style.EMPTY);
+
+        // 跳过开头的消息头片段
+        String senderName = null;
+        int start = 0;
+        while (start < raw.size() && isHeaderPiece(raw.get(start))) {
+            Piece piece = raw.get(start);
+            if (senderName == null && isSenderStyle(piece.style)) {
+                senderName = piece.style.getInsertion() != null ? piece.style.getInsertion() : piece.text.trim();
+            }
+            start++;
+        }
+
+        List<Piece> pieces = new ArrayList<>();
+        StringBuilder body = null;
+        Style bodyStyle = null;
+        for (int i = start; i < raw.size(); i++) {
+            Piece piece = raw.get(i);
+            String text = piece.text;
+            if (i == start && senderName == null) {
+                // 消息头和正文在同一片段中
+                Matcher matcher = INLINE_HEADER_PATTERN.matcher(text);
+                if (matcher.find() && matcher.end() < text.length()) {
+                    senderName = matcher.group(1) != null ? matcher.group(1) : matcher.group(2);
+                    text = text.substring(matcher.end());
+                }
+            }
+            if (isBodyPiece(piece.style, text)) {
+                if (body == null) {
+                    body = new StringBuilder();
+                    bodyStyle = piece.style;
+                }
+                body.append(text);
+            } else {
+                if (body != null) {
+                    addBody(pieces, body.toString(), bodyStyle);
+                    body = null;
+                }
+                pieces.add(new Piece(piece.style, text, false));
+            }
+        }
+        if (body != null) {
+            addBody(pieces, body.toString(), bodyStyle);
+        }
+
+        ChatMessageSegments segments = new ChatMessageSegments(pieces, senderName);
+        return segments.bodyTexts.isEmpty() ? null : segments;
+    }
+
+    /**
+     * 需要翻译的正文（去重，保持顺序）
+     */
+    public List<String> getBodyTexts() {
+        return bodyTexts;
+    }
+
+    /**
+     * 消息头中的发送者名称，没有时返回 null
+     */
+    public String getSenderName() {
+        return senderName;
+    }
+
+    /**
+     * 按原样式拼出译文：正文替换为译文，链接等片段保持原样
+     * @param lookup 正文 -> 译文，没有译文时返回 null
+     * @return 追加在原消息后的译文组件，没有任何正文有译文时返回 null
+     */
+    public Component buildTranslation(Function<String, String> lookup) {
+        MutableComponent result = Component.literal(" ");
+        boolean translated = false;
+        for (Piece piece : pieces) {
+            String text = piece.text;
+            if (piece.body) {
+                String translation = lookup.apply(piece.text);
+                if (translation != null) {
+                    translated = true;
+                    text = translation;
+                }
+                text = "§a" + text;
+            }
+            MutableComponent part = Component.literal(text);
+            part.setStyle(piece.style);
+            result.append(part);
+        }
+        return translated ? result : null;
+    }
+
+    private static void addBody(List<Piece> pieces, String text, Style style) {
+        // 只有空白和符号的片段不需要翻译
+        pieces.add(new Piece(style, text, hasLetter(text)));
+    }
+
+    private static boolean isHeaderPiece(Piece piece) {
+        String text = piece.text;
+        return isSenderStyle(piece.style)
+                || TAG_PATTERN.matcher(text).matches()
+                || TIMESTAMP_PATTERN.matcher(text).matches()
+                || (text.length() <= 4 && !hasLetterOrDigit(text));
+    }
+
+    /**
+     * 玩家名片段：点击建议私聊命令、悬停显示实体或带插入文本（原版聊天中的玩家名都是这样）
+     */
+    private static boolean isSenderStyle(Style style) {
+        if (style.getInsertion() != null) {
+            return true;
+        }
+        HoverEvent hoverEvent = style.getHoverEvent();
+        if (hoverEvent != null && hoverEvent.getAction() == HoverEvent.Action.SHOW_ENTITY) {
+            return true;
+        }
+        ClickEvent clickEvent = style.getClickEvent();
+        return clickEvent != null && clickEvent.getAction() == ClickEvent.Action.SUGGEST_COMMAND
+                && (clickEvent.getValue().startsWith("/tell ") || clickEvent.getValue().startsWith("/msg "));
+    }
+
+    /**
+     * 正文片段：不可点击、不是玩家名（@提及）、不是链接
+     */
+    private static boolean isBodyPiece(Style style, String text) {
+        return style.getClickEvent() == null && !isSenderStyle(style) && !URL_PATTERN.matcher(text).matches();
+    }
+
+    private static boolean hasLetter(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (Character.isLetter(text.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasLetterOrDigit(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (Character.isLetterOrDigit(text.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private record Piece(Style style, String text, boolean body) {
+    }
+}
@@ -0,0 +1,286 @@
+package translation.modid.chat;
+
+import translation.modid.SimpleTranslation;
+import translation.modid.config.TranslationConfig;
+import translation.modid.translator.TranslationManager;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * 聊天翻译流水线
+ * 聊天消息不再逐条请求翻译，而是按发送者排队，在一个短时间窗口（chatBatchWindow）内合并为一次批量翻译。
+ *
+ * - 队列有上限（chatQueueLimit），超出时从排队最多的发送者那里丢弃最早的消息，刷屏的玩家或插件广播只会挤掉自己的消息
+ * - 组批时在发送者之间轮流取消息，一个来源不会占满整批
+ * - 排队太久的消息直接丢弃，同时在途的批次有上限，翻译接口变慢时不会越积越多，新消息始终能及时翻译
+ * - 被丢弃的消息保持原文显示
+ * - 后台请求（聊天悬停文本预取）单独排队，只填充聊天消息没有占满的批次位置，或在没有聊天消息在途时提交
+ *
+ * submit、submitBackground、tick、clear 只在主线程中调用；翻译结果的回调在翻译线程中执行。
+ */
+public class ChatTranslationPipeline {
+    private static final ChatTranslationPipeline INSTANCE = new ChatTranslationPipeline();
+
+    // 每批最多的消息数
+    private static final int BATCH_SIZE = 16;
+
+    // 同时在途的批次上限
+    private static final int MAX_IN_FLIGHT = 2;
+
+    // 排队超过这个时间（毫秒）的消息不再翻译
+    private static final long MAX_QUEUE_AGE = 15000;
+
+    // 后台请求队列上限，超出时丢弃最早的请求
+    private static final int BACKGROUND_LIMIT = 32;
+
+    // 系统消息（插件广播、服务器提示）共用的发送者
+    private static final String SYSTEM_SENDER = "system";
+
+    // 发送者 -> 排队的消息（先进先出），按轮询顺序排列
+    private final LinkedHashMap<String, ArrayDeque<Request>> queues = new LinkedHashMap<>();
+    private int queuedCount;
+
+    // 低优先级的后台请求（先进先出）
+    private final ArrayDeque<Request> background = new ArrayDeque<>();
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    // 当前正在显示的玩家消息的发送者（ChatListener 显示玩家消息期间设置）
+    private UUID currentPlayerSender;
+
+    private ChatTranslationPipeline() {
+    }
+
+    public static ChatTranslationPipeline getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 加入队列（主线程）
+     * @param sender       发送者
+     * @param text         原文
+     * @param onTranslated 翻译完成时调用（翻译线程）
+     * @param onDropped    消息被丢弃、翻译失败或没有译文时调用
+     */
+    public void submit(String sender, String text, Consumer<String> onTranslated, Runnable onDropped) {
+        queues.computeIfAbsent(sender, k -> new ArrayDeque<>())
+                .addLast(new Request(text, System.currentTimeMillis(), onTranslated, onDropped));
+        queuedCount++;
+
+        int limit = Math.max(1, TranslationConfig.getInstance().chatQueueLimit);
+        while (queuedCount > limit) {
+            shedFromLargestQueue();
+        }
+    }
+
+    /**
+     * 加入低优先级的后台队列（主线程），不参与发送者轮询，也不会因排队时间过长被丢弃
+     * @param text         原文
+     * @param onTranslated 翻译完成时调用（翻译线程）
+     * @param onDropped    请求被丢弃、翻译失败或没有译文时调用
+     */
+    public void submitBackground(String text, Consumer<String> onTranslated, Runnable onDropped) {
+        background.addLast(new Request(text, System.currentTimeMillis(), onTranslated, onDropped));
+        while (background.size() > BACKGROUND_LIMIT) {
+            background.pollFirst().onDropped.run();
+        }
+    }
+
+    /**
+     * 每个客户端tick调用：丢弃过期消息，窗口结束或攒够一批时提交
+     */
+    public void tick() {
+        if (queuedCount == 0 && background.isEmpty()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        dropExpired(now);
+        if (inFlight.get() >= MAX_IN_FLIGHT) {
+            return;
+        }
+        long window = Math.max(0, TranslationConfig.getInstance().chatBatchWindow);
+        boolean foregroundReady = queuedCount > 0 && (queuedCount >= BATCH_SIZE || now - oldestQueuedAt() >= window);
+        // 只有后台请求时，在没有批次在途时才提交，始终给聊天消息留出位置
+        boolean backgroundReady = queuedCount == 0 && inFlight.get() == 0
+                && !background.isEmpty() && now - background.peekFirst().queuedAt >= window;
+        if (!foregroundReady && !backgroundReady) {
+            return;
+        }
+        List<Request> batch = takeFairBatch();
+        // 聊天消息没有占满的位置留给后台请求
+        while (batch.size() < BATCH_SIZE && !background.isEmpty()) {
+            batch.add(background.pollFirst());
+        }
+        dispatch(batch);
+    }
+
+    /**
+     * 清空队列（断开连接时调用），已经提交的批次不受影响
+     * 排队中的请求按被丢弃处理，等待译文的消息不会一直停在等待状态
+     */
+    public void clear() {
+        List<Request> dropped = new ArrayList<>(queuedCount + background.size());
+        for (ArrayDeque<Request> queue : queues.values()) {
+            dropped.addAll(queue);
+        }
+        dropped.addAll(background);
+        queues.clear();
+        queuedCount = 0;
+        background.clear();
+        currentPlayerSender = null;
+        for (Request request : dropped) {
+            request.onDropped.run();
+        }
+    }
+
+    /**
+     * ChatListener 开始显示一条玩家消息时调用
+     */
+    public void beginPlayerMessage(UUID sender) {
+        this.currentPlayerSender = sender;
+    }
+
+    /**
+     * ChatListener 显示完一条玩家消息时调用
+     */
+    public void endPlayerMessage() {
+        this.currentPlayerSender = null;
+    }
+
+    /**
+     * 确定正在加入聊天栏的消息的发送者：玩家消息使用玩家UUID，
+     * 系统消息使用消息头中的玩家名（ChatMessageSegments），取不到时归为系统消息
+     * @param senderName 消息头中的发送者名称，可以为 null
+     */
+    public String resolveSender(String senderName) {
+        UUID player = currentPlayerSender;
+        if (player != null) {
+            return player.toString();
+        }
+        if (senderName != null && !senderName.isEmpty()) {
+            return "name:" + senderName.toLowerCase();
+        }
+        return SYSTEM_SENDER;
+    }
+
+    /**
+     * 在发送者之间轮流取消息组成一批；被取过的发送者移到轮询顺序末尾，下一批从还没轮到的发送者开始
+     */
+    private List<Request> takeFairBatch() {
+        List<Request> batch = new ArrayList<>(BATCH_SIZE);
+        List<String> served = new ArrayList<>();
+        while (batch.size() < BATCH_SIZE && queuedCount > 0) {
+            Iterator<Map.Entry<String, ArrayDeque<Request>>> iterator = queues.entrySet().iterator();
+            while (iterator.hasNext() && batch.size() < BATCH_SIZE) {
+                Map.Entry<String, ArrayDeque<Request>> entry = iterator.next();
+                batch.add(entry.getValue().pollFirst());
+                queuedCount--;
+                if (!served.contains(entry.getKey())) {
+                    served.add(entry.getKey());
+                }
+                if (entry.getValue().isEmpty()) {
+                    iterator.remove();
+                }
+            }
+        }
+        for (String sender : served) {
+            ArrayDeque<Request> queue = queues.remove(sender);
+            if (queue != null) {
+                queues.put(sender, queue);
+            }
+        }
+        return batch;
+    }
+
+    private void dispatch(List<Request> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        Set<String> texts = new LinkedHashSet<>();
+        for (Request request : batch) {
+            texts.add(request.text);
+        }
+
+        inFlight.incrementAndGet();
+        SimpleTranslation.LOGGER.debug("[Chat] 批量翻译 {} 条消息，剩余排队 {} 条", texts.size(), queuedCount);
+        TranslationManager.getInstance().translateBatch(new ArrayList<>(texts))
+                .whenComplete((results, error) -> {
+                    inFlight.decrementAndGet();
+                    if (error != null) {
+                        SimpleTranslation.LOGGER.error("[Chat] 批量翻译失败: {}", error.getMessage());
+                    }
+                    for (Request request : batch) {
+                        String translated = results != null ? results.get(request.text) : null;
+                        if (translated != null && !translated.isEmpty() && !translated.equals(request.text)) {
+                            request.onTranslated.accept(translated);
+                        } else {
+                            request.onDropped.run();
+                        }
+                    }
+                });
+    }
+
+    /**
+     * 从排队最多的发送者那里丢弃最早的一条消息
+     */
+    private void shedFromLargestQueue() {
+        String largest = null;
+        int largestSize = 0;
+        for (Map.Entry<String, ArrayDeque<Request>> entry : queues.entrySet()) {
+            if (entry.getValue().size() > largestSize) {
+                largest = entry.getKey();
+                largestSize = entry.getValue().size();
+            }
+        }
+        if (largest == null) {
+            queuedCount = 0;
+            return;
+        }
+        ArrayDeque<Request> queue = queues.get(largest);
+        Request dropped = queue.pollFirst();
+        queuedCount--;
+        if (queue.isEmpty()) {
+            queues.remove(largest);
+        }
+        SimpleTranslation.LOGGER.debug("[Chat] 队列已满，丢弃来自 {} 的消息: {}", largest, dropped.text);
+        dropped.onDropped.run();
+    }
+
+    private void dropExpired(long now) {
+        Iterator<ArrayDeque<Request>> iterator = queues.values().iterator();
+        while (iterator.hasNext()) {
+            ArrayDeque<Request> queue = iterator.next();
+            while (!queue.isEmpty() && now - queue.peekFirst().queuedAt > MAX_QUEUE_AGE) {
+                queue.pollFirst().onDropped.run();
+                queuedCount--;
+            }
+            if (queue.isEmpty()) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private long oldestQueuedAt() {
+        long oldest = Long.MAX_VALUE;
+        for (ArrayDeque<Request> queue : queues.values()) {
+            Request head = queue.peekFirst();
+            if (head != null && head.queuedAt < oldest) {
+                oldest = head.queuedAt;
+            }
+        }
+        return oldest;
+    }
+
+    private record Request(String text, long queuedAt, Consumer<String> onTranslated, Runnable onDropped) {
+    }
+}
@@ -0,0 +1,367 @@
+package translation.modid.hud;
+
+import net.minecraft.client.Minecraft;
+import translation.modid.SimpleTranslation;
+import translation.modid.cache.CacheNamespace;
+import translation.modid.cache.NamespacedTextCache;
+import translation.modid.config.TranslationConfig;
+import translation.modid.translator.ScriptDetector;
+import translation.modid.translator.TranslationBatchQueue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * HUD文本稳定性门控
+ * 按显示位置（actionbar、标题、每个boss血条、每个文字显示实体）记录文本最近一次变化的时间，
+ * 只有文本保持不变超过 hudStableTime 才请求翻译；倒计时、血量、滚动字幕这类每tick变化的文本不会把每个中间状态都发给翻译接口。
+ *
+ * - 含数字的文本按模板翻译（数字替换为 {0}、{1}…），稳定性也按模板判断，只有数字在变化的倒计时同样视为稳定；
+ *   模板译文缓存后，数字不同的同类文本直接套用模板，不再请求
+ * - 稳定的文本先排队 FLUSH_WINDOW 再合并为一次批量翻译；排队期间该位置的文本变化时撤回请求，
+ *   已经提交的请求完成后只在该位置仍显示同一文本时回调
+ * - 译文与原文相同时记为该命名空间下不需要翻译，不再请求；批次出错或没有返回译文时，该位置过 RETRY_DELAY 后再重新请求
+ * - 切换语言或翻译接口后，位置按新的命名空间重新计时；回调只在命名空间与提交时相同的情况下调用
+ */
+public class HudStabilityGate {
+    private static final HudStabilityGate INSTANCE = new HudStabilityGate();
+
+    // 稳定的文本排队多久（毫秒）后提交，期间可以撤回，相近时间稳定的文本合并为一批
+    private static final long FLUSH_WINDOW = 250;
+
+    // 翻译失败后重新请求的间隔（毫秒）
+    private static final long RETRY_DELAY = 30000;
+
+    // 原文/模板 -> 译文（模板译文中保留占位符）
+    private final NamespacedTextCache hudCache = new NamespacedTextCache();
+
+    // 译文与原文相同、不需要翻译的原文/模板（值与键相同）
+    private final NamespacedTextCache unchangedCache = new NamespacedTextCache();
+
+    // 显示位置 -> 状态
+    private final Map<String, Slot> slots = new ConcurrentHashMap<>();
+
+    // 译文丢失占位符的模板，之后按原文翻译
+    private final Set<String> brokenTemplates = ConcurrentHashMap.newKeySet();
+
+    private final TranslationBatchQueue batchQueue = new TranslationBatchQueue("HUD", this::onBatchTranslated,
+            this::onBatchFailed);
+
+    // 队列中最早的请求加入的时间，队列为空时为 0（只在主线程中读写）
+    private long queuedSince;
+
+    private HudStabilityGate() {
+    }
+
+    public static HudStabilityGate getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 提交显示位置当前的文本（主线程）
+     * @param slotKey      显示位置
+     * @param text         当前文本
+     * @param onTranslated 之后得到译文、该位置仍显示这段文本且命名空间没有变化时，在主线程中调用
+     * @return 已有译文（缓存或模板）时直接返回，否则返回 null 并等待文本稳定后翻译
+     */
+    public String submit(String slotKey, String text, Consumer<String> onTranslated) {
+        Slot slot = slots.computeIfAbsent(slotKey, k -> new Slot());
+        CacheNamespace namespace = CacheNamespace.current();
+        if (!text.equals(slot.text) || slot.namespace != namespace) {
+            HudTemplate template = HudTemplate.of(text);
+            String stableKey = stableKeyOf(text, template);
+            if (!stableKey.equals(slot.stableKey) || slot.namespace != namespace) {
+                // 文本（或模板）、命名空间变化：撤回该位置还在排队的旧请求，重新开始计时
+                if (slot.requestText != null) {
+                    cancelIfUnused(slot.requestText, slot);
+                    slot.requestText = null;
+                }
+                if (slot.namespace != namespace) {
+                    // 在旧命名空间中请求过的文本需要重新请求
+                    slot.requestedKey = null;
+                    slot.namespace = namespace;
+                }
+                slot.stableKey = stableKey;
+                slot.changedAt = System.currentTimeMillis();
+                slot.retryAt = 0;
+            }
+            // 只有数字变化时保持计时和请求，之后用新的数字填充模板
+            slot.text = text;
+            slot.template = template;
+        }
+        slot.callback = onTranslated;
+
+        String translated = lookup(text, slot.template);
+        if (translated != null) {
+            slot.requestText = null;
+        }
+        return translated;
+    }
+
+    /**
+     * 移除显示位置（实体卸载、血条移除时调用）
+     */
+    public void removeSlot(String slotKey) {
+        Slot slot = slots.remove(slotKey);
+        if (slot != null && slot.requestText != null) {
+            cancelIfUnused(slot.requestText, slot);
+        }
+    }
+
+    /**
+     * 每个客户端tick调用：把已经稳定的文本加入队列，排队满 FLUSH_WINDOW 后合并提交
+     */
+    public void tick() {
+        if (slots.isEmpty() && queuedSince == 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long stableTime = Math.max(0, TranslationConfig.getInstance().hudStableTime);
+        CacheNamespace namespace = CacheNamespace.current();
+        for (Slot slot : slots.values()) {
+            if (slot.text == null || slot.requestText != null || slot.stableKey.equals(slot.requestedKey)) {
+                continue;
+            }
+            if (slot.namespace != namespace) {
+                // 命名空间已切换，等该位置按新的命名空间重新提交
+                continue;
+            }
+            if (!ScriptDetector.needsTranslation(slot.text) || unchangedCache.get(slot.stableKey) != null) {
+                // 只有数字和符号、已经是目标语言、之前翻译结果与原文相同等，不需要翻译
+                slot.requestedKey = slot.stableKey;
+                continue;
+            }
+            if (now - slot.changedAt < stableTime || now < slot.retryAt) {
+                continue;
+            }
+            if (lookup(slot.text, slot.template) != null) {
+                // 稳定期间其他位置的请求已经带来了译文，下一次提交时直接命中
+                deliver(slot);
+                continue;
+            }
+            slot.requestText = slot.stableKey;
+            slot.requestedKey = slot.stableKey;
+            if (batchQueue.enqueue(slot.requestText) && queuedSince == 0) {
+                queuedSince = now;
+            }
+        }
+        if (queuedSince != 0 && now - queuedSince >= FLUSH_WINDOW) {
+            batchQueue.flush();
+            queuedSince = 0;
+        }
+    }
+
+    /**
+     * 清空所有显示位置（断开连接时调用）
+     */
+    public void clear() {
+        slots.clear();
+        batchQueue.clear();
+        queuedSince = 0;
+    }
+
+    /**
+     * 判断稳定性和请求翻译时使用的文本：有可用的数字模板时使用模板，否则使用原文
+     */
+    private String stableKeyOf(String text, HudTemplate template) {
+        return template != null && !brokenTemplates.contains(template.pattern()) ? template.pattern() : text;
+    }
+
+    /**
+     * 查找译文：原文缓存，其次模板缓存
+     */
+    private String lookup(String text, HudTemplate template) {
+        String cached = hudCache.get(text);
+        if (cached != null) {
+            return cached;
+        }
+        if (template != null) {
+            String pattern = hudCache.get(template.pattern());
+            if (pattern != null) {
+                return template.fill(pattern);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 批量翻译完成（翻译线程）
+     */
+    private void onBatchTranslated(CacheNamespace namespace, String requestText, String translated) {
+        if (translated.equals(requestText)) {
+            // 译文与原文相同：记为该命名空间下不需要翻译，等待这条请求的位置保持原文，不再重复请求
+            unchangedCache.put(namespace, requestText, requestText);
+            Minecraft.getInstance().execute(() -> {
+                for (Slot slot : slots.values()) {
+                    if (requestText.equals(slot.requestText)) {
+                        slot.requestText = null;
+                        slot.requestedKey = slot.stableKey;
+                    }
+                }
+            });
+            return;
+        }
+        boolean isTemplate = HudTemplate.isPattern(requestText);
+        if (isTemplate && !HudTemplate.keepsPlaceholders(requestText, translated)) {
+            // 翻译接口没有保留占位符，该模板改为按原文翻译
+            brokenTemplates.add(requestText);
+            SimpleTranslation.LOGGER.debug("[HUD] 模板译文丢失占位符，改为按原文翻译: '{}' -> '{}'", requestText, translated);
+        } else {
+            hudCache.put(namespace, requestText, translated);
+        }
+
+        Minecraft.getInstance().execute(() -> {
+            for (Slot slot : slots.values()) {
+                if (!requestText.equals(slot.requestText)) {
+                    continue;
+                }
+                slot.requestText = null;
+                if (lookup(slot.text, slot.template) != null) {
+                    deliver(slot);
+                } else {
+                    // 模板失败，改为按原文判断稳定性，原文稳定后重新请求
+                    slot.stableKey = stableKeyOf(slot.text, slot.template);
+                    slot.requestedKey = null;
+                    slot.changedAt = System.currentTimeMillis();
+                }
+            }
+        });
+    }
+
+    /**
+     * 批次出错或没有返回译文（翻译线程）：释放等待这条请求的位置，过一段时间后重新请求
+     */
+    private void onBatchFailed(String requestText) {
+        Minecraft.getInstance().execute(() -> {
+            long retryAt = System.currentTimeMillis() + RETRY_DELAY;
+            for (Slot slot : slots.values()) {
+                if (requestText.equals(slot.requestText)) {
+                    slot.requestText = null;
+                    slot.requestedKey = null;
+                    slot.retryAt = retryAt;
+                }
+            }
+        });
+    }
+
+    private void deliver(Slot slot) {
+        if (slot.namespace != CacheNamespace.current()) {
+            return;
+        }
+        String translated = lookup(slot.text, slot.template);
+        slot.requestedKey = slot.stableKey;
+        if (translated != null && slot.callback != null) {
+            try {
+                slot.callback.accept(translated);
+            } catch (Exception e) {
+                SimpleTranslation.LOGGER.error("[HUD] 应用译文时出错: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 没有其他位置在等待同一请求时，从队列中撤回
+     */
+    private void cancelIfUnused(String requestText, Slot owner) {
+        for (Slot other : slots.values()) {
+            if (other != owner && requestText.equals(other.requestText)) {
+                return;
+            }
+        }
+        batchQueue.cancel(requestText);
+    }
+
+    /**
+     * 显示位置的状态（只在主线程中读写）
+     */
+    private static final class Slot {
+        private String text;
+        // 提交文本时的缓存命名空间
+        private CacheNamespace namespace;
+        private HudTemplate template;
+        // 判断稳定性的文本（模板或原文），变化时重新计时
+        private String stableKey;
+        private long changedAt;
+        // 正在排队或翻译的请求文本（模板或原文）
+        private String requestText;
+        // 已经请求过翻译的 stableKey（同一文本不重复请求）
+        private String requestedKey;
+        // 翻译失败后，这个时间之前不再请求
+        private long retryAt;
+        private Consumer<String> callback;
+    }
+
+    /**
+     * 数字模板：文本中的数字替换为 {0}、{1}…
+     */
+    private record HudTemplate(String pattern, List<String> numbers) {
+        static HudTemplate of(String text) {
+            StringBuilder pattern = null;
+            List<String> numbers = null;
+            int i = 0;
+            int length = text.length();
+            int last = 0;
+            while (i < length) {
+                char c = text.charAt(i);
+                if (c >= '0' && c <= '9') {
+                    int start = i;
+                    while (i < length && (isDigit(text.charAt(i))
+                            || (text.charAt(i) == '.' && i + 1 < length && isDigit(text.charAt(i + 1))))) {
+                        i++;
+                    }
+                    if (pattern == null) {
+                        pattern = new StringBuilder(length);
+                        numbers = new ArrayList<>();
+                    }
+                    pattern.append(text, last, start).append('{').append(numbers.size()).append('}');
+                    numbers.add(text.substring(start, i));
+                    last = i;
+                } else {
+                    i++;
+                }
+            }
+            if (pattern == null) {
+                return null;
+            }
+            pattern.append(text, last, length);
+            return new HudTemplate(pattern.toString(), numbers);
+        }
+
+        private static boolean isDigit(char c) {
+            return c >= '0' && c <= '9';
+        }
+
+        static boolean isPattern(String text) {
+            return text.contains("{0}");
+        }
+
+        static boolean keepsPlaceholders(String pattern, String translated) {
+            for (int index = 0; pattern.contains("{" + index + "}"); index++) {
+                if (!translated.contains("{" + index + "}")) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * 把数字填回模板译文
+         * @return 填充后的文本，译文缺少占位符时返回 null
+         */
+        String fill(String translatedPattern) {
+            String result = translatedPattern;
+            for (int index = 0; index < numbers.size(); index++) {
+                String placeholder = "{" + index + "}";
+                if (!result.contains(placeholder)) {
+                    return null;
+                }
+                result = result.replace(placeholder, numbers.get(index));
+            }
+            return result;
+        }
+    }
+}
@@ -9,16 +9,17 @@ import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+import translation.modid.cache.CacheNamespace;
+import translation.modid.cache.NamespacedTextCache;
 import translation.modid.config.TranslationConfig;
+import translation.modid.translator.ScriptDetector;
 import translation.modid.translator.TranslationManager;
 
-import java.util.concurrent.ConcurrentHashMap;
-
 @Mixin(DisplayInfo.class)
 public abstract class AdvancementDisplayMixin {
     
     @Unique
-    private static final ConcurrentHashMap<String, String> advancementCache = new ConcurrentHashMap<>();
+    private static final NamespacedTextCache advancementCache = new NamespacedTextCache();
     
     @Unique
     private Component cachedTitle;
@@ -72,7 +73,7 @@ public abstract class AdvancementDisplayMixin {
         }
 
         String titleText = originalTitle.getString();
-        if (titleText == null || titleText.trim().isEmpty() || containsChinese(titleText)) {
+        if (!ScriptDetector.needsTranslation(titleText)) {
             return;
         }
 
@@ -98,10 +99,11 @@ public abstract class AdvancementDisplayMixin {
             }
         } else if (cachedTitle == null) {
             titleDirty = true;
-            TranslationManager.getInstance().translate(titleText)
+            CacheNamespace namespace = CacheNamespace.current();
+            TranslationManager.getInstance().translate(titleText, namespace)
                     .thenAccept(translated -> {
                         if (translated != null && !translated.isEmpty() && !translated.equals(titleText)) {
-                            advancementCache.put(titleText, translated);
+                            advancementCache.put(namespace, titleText, translated);
                             titleDirty = false;
                         }
                     });
@@ -132,7 +134,7 @@ public abstract class AdvancementDisplayMixin {
         }
 
         String descriptionText = originalDescription.getString();
-        if (descriptionText == null || descriptionText.trim().isEmpty() || containsChinese(descriptionText)) {
+        if (!ScriptDetector.needsTranslation(descriptionText)) {
             return;
         }
 
@@ -158,10 +160,11 @@ public abstract class AdvancementDisplayMixin {
             }
         } else if (cachedDescription == null) {
             descriptionDirty = true;
-            TranslationManager.getInstance().translate(descriptionText)
+            CacheNamespace namespace = CacheNamespace.current();
+            TranslationManager.getInstance().translate(descriptionText, namespace)
                     .thenAccept(translated -> {
                         if (translated != null && !translated.isEmpty() && !translated.equals(descriptionText)) {
-                            advancementCache.put(descriptionText, translated);
+                            advancementCache.put(namespace, descriptionText, translated);
                             descriptionDirty = false;
                         }
                     });
@@ -170,10 +173,4 @@ public abstract class AdvancementDisplayMixin {
             cir.setReturnValue(cachedDescription);
         }
     }
-
-    private boolean containsChinese(String text) {
-        if (text == null) return false;
-        return text.matches(".*[\\u4e00-\\u9fa5].*");
-    }
 }
-
@@ -4,7 +4,9 @@ import net.minecraft.client.gui.GuiGraphics;
 import net.minecraft.client.gui.components.Button;
 import net.minecraft.client.gui.screens.inventory.BookEditScreen;
 import net.minecraft.network.chat.Component;
+import org.spongepowered.asm.mixin.Final;
 import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
 import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
@@ -14,12 +16,18 @@ import translation.modid.SimpleTranslation;
 import translation.modid.book.BookTranslationOverlay;
 import translation.modid.config.TranslationConfig;
 
-import java.lang.reflect.Field;
 import java.util.List;
 
 @Mixin(BookEditScreen.class)
 public abstract class BookEditScreenMixin {
     
+    @Shadow
+    @Final
+    private List<String> pages;
+    
+    @Shadow
+    private int currentPage;
+    
     @Unique
     private Button translateButton;
     
@@ -60,21 +68,8 @@ public abstract class BookEditScreenMixin {
                 .bounds(buttonX, buttonY, 98, 20)
                 .build();
             
-            // 尝试将按钮添加到屏幕的widget列表
-            try {
-                // 尝试使用反射调用 addRenderableWidget
-                java.lang.reflect.Method addMethod = screen.getClass().getMethod("addRenderableWidget", net.minecraft.client.gui.components.Renderable.class);
-                addMethod.invoke(screen, translateButton);
-                SimpleTranslation.LOGGER.info("翻译按钮已通过addRenderableWidget添加到屏幕");
-            } catch (Exception e) {
-                // 如果失败，尝试添加到children列表
-                try {
-                    addWidgetToList(screen, "children", translateButton);
-                    SimpleTranslation.LOGGER.info("翻译按钮已通过children列表添加到屏幕");
-                } catch (Exception e2) {
-                    SimpleTranslation.LOGGER.warn("无法将翻译按钮添加到屏幕widget列表，将使用手动渲染: {}", e2.getMessage());
-                }
-            }
+            // 将按钮添加到屏幕的子组件（接收输入），按钮由 onRender 手动渲染
+            ((ScreenAccessor) screen).invokeAddWidget(translateButton);
             
             SimpleTranslation.LOGGER.info("翻译按钮已创建 - 位置: ({}, {}), 尺寸: {}x{}", 
                 buttonX, buttonY, 98, 20);
@@ -112,7 +107,6 @@ public abstract class BookEditScreenMixin {
                 
                 // 检查页码是否变化
                 BookEditScreen screen = (BookEditScreen)(Object)this;
-                int currentPage = getCurrentPageNumber(screen);
                 
                 if (currentPage != lastTranslatedPage && translateButton != null) {
                     // 页码变化，重置按钮
@@ -170,7 +164,7 @@ public abstract class BookEditScreenMixin {
     @Unique
     private void translateCurrentPage(BookEditScreen screen) {
         try {
-            String[] pages = getPages(screen);
+            String[] pages = getPages();
             
             if (pages == null || pages.length == 0) {
                 SimpleTranslation.LOGGER.warn("无法获取页面内容");
@@ -212,108 +206,7 @@ public abstract class BookEditScreenMixin {
     }
     
     @Unique
-    private int getCurrentPageNumber(BookEditScreen screen) {
-        try {
-            // 尝试多个可能的字段名
-            String[] possibleNames = {"currentPage", "field_3926", "f_98882_"};
-            
-            for (String fieldName : possibleNames) {
-                try {
-                    Field field = screen.getClass().getDeclaredField(fieldName);
-                    field.setAccessible(true);
-                    return field.getInt(screen);
-                } catch (NoSuchFieldException ignored) {
-                }
-            }
-            
-            // 如果都失败了，尝试遍历所有int字段
-            for (Field field : screen.getClass().getDeclaredFields()) {
-                if (field.getType() == int.class) {
-                    field.setAccessible(true);
-                    int value = field.getInt(screen);
-                    // 假设页码在0-100之间
-                    if (value >= 0 && value < 100) {
-                        return value;
-                    }
-                }
-            }
-        } catch (Exception e) {
-            // 静默处理
-        }
-        return 0;
-    }
-    
-    @Unique
-    private String[] getPages(BookEditScreen screen) {
-        try {
-            // 尝试多个可能的字段名（1.20.1使用List<String>）
-            String[] possibleNames = {"pages", "field_3925", "f_98881_"};
-            
-            for (String fieldName : possibleNames) {
-                try {
-                    Field field = screen.getClass().getDeclaredField(fieldName);
-                    field.setAccessible(true);
-                    Object value = field.get(screen);
-                    
-                    SimpleTranslation.LOGGER.info("找到字段 '{}', 类型: {}", fieldName, value.getClass().getName());
-                    
-                    // 尝试String[]类型
-                    if (value instanceof String[]) {
-                        String[] pages = (String[]) value;
-                        SimpleTranslation.LOGGER.info("成功获取String[]类型，共{}页", pages.length);
-                        return pages;
-                    }
-                    
-                    // 尝试List<String>类型（1.20.1使用这个）
-                    if (value instanceof java.util.List) {
-                        java.util.List<?> list = (java.util.List<?>) value;
-                        String[] pages = new String[list.size()];
-                        for (int i = 0; i < list.size(); i++) {
-                            pages[i] = list.get(i).toString();
-                        }
-                        SimpleTranslation.LOGGER.info("成功获取List<String>类型，共{}页", pages.length);
-                        return pages;
-                    }
-                } catch (NoSuchFieldException e) {
-                    SimpleTranslation.LOGGER.debug("字段 '{}' 不存在", fieldName);
-                }
-            }
-            
-            // 如果上面都失败，尝试遍历所有字段找List类型
-            SimpleTranslation.LOGGER.info("尝试遍历所有字段查找List<String>...");
-            for (Field field : screen.getClass().getDeclaredFields()) {
-                field.setAccessible(true);
-                Object value = field.get(screen);
-                if (value instanceof java.util.List) {
-                    java.util.List<?> list = (java.util.List<?>) value;
-                    if (!list.isEmpty() && list.get(0) instanceof String) {
-                        String[] pages = new String[list.size()];
-                        for (int i = 0; i < list.size(); i++) {
-                            pages[i] = list.get(i).toString();
-                        }
-                        SimpleTranslation.LOGGER.info("通过遍历找到List<String>字段 '{}', 共{}页", field.getName(), pages.length);
-                        return pages;
-                    }
-                }
-            }
-        } catch (Exception e) {
-            SimpleTranslation.LOGGER.error("获取pages字段失败", e);
-        }
-        
-        SimpleTranslation.LOGGER.warn("所有尝试都失败，无法获取页面内容");
-        return null;
-    }
-    
-    @Unique
-    @SuppressWarnings("unchecked")
-    private void addWidgetToList(BookEditScreen screen, String fieldName, Button widget) {
-        try {
-            Field field = screen.getClass().getSuperclass().getDeclaredField(fieldName);
-            field.setAccessible(true);
-            List<Object> list = (List<Object>) field.get(screen);
-            list.add(widget);
-        } catch (Exception e) {
-            // 静默忽略，可能是字段名不对
-        }
+    private String[] getPages() {
+        return pages.toArray(new String[0]);
     }
 }
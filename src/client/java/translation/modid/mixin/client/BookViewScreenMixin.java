@@ -16,9 +16,6 @@ import translation.modid.SimpleTranslation;
 import translation.modid.book.BookTranslationOverlay;
 import translation.modid.config.TranslationConfig;
 
-import java.lang.reflect.Field;
-import java.util.List;
-
 @Mixin(BookViewScreen.class)
 public abstract class BookViewScreenMixin {
     
@@ -67,21 +64,8 @@ public abstract class BookViewScreenMixin {
                 .bounds(buttonX, buttonY, 98, 20)
                 .build();
             
-            // 尝试将按钮添加到屏幕的widget列表
-            try {
-                // 尝试使用反射调用 addRenderableWidget
-                java.lang.reflect.Method addMethod = screen.getClass().getMethod("addRenderableWidget", net.minecraft.client.gui.components.Renderable.class);
-                addMethod.invoke(screen, translateButton);
-                SimpleTranslation.LOGGER.info("翻译按钮已通过addRenderableWidget添加到屏幕");
-            } catch (Exception e) {
-                // 如果失败，尝试添加到children列表
-                try {
-                    addWidgetToList(screen, "children", translateButton);
-                    SimpleTranslation.LOGGER.info("翻译按钮已通过children列表添加到屏幕");
-                } catch (Exception e2) {
-                    SimpleTranslation.LOGGER.warn("无法将翻译按钮添加到屏幕widget列表，将使用手动渲染: {}", e2.getMessage());
-                }
-            }
+            // 将按钮添加到屏幕的子组件（接收输入），按钮由 onRender 手动渲染
+            ((ScreenAccessor) screen).invokeAddWidget(translateButton);
             
             SimpleTranslation.LOGGER.info("翻译按钮已创建 - 位置: ({}, {}), 尺寸: {}x{}", 
                 buttonX, buttonY, 98, 20);
@@ -244,17 +228,4 @@ public abstract class BookViewScreenMixin {
             translateButton.active = true;
         }
     }
-    
-    @Unique
-    @SuppressWarnings("unchecked")
-    private void addWidgetToList(BookViewScreen screen, String fieldName, Button widget) {
-        try {
-            Field field = screen.getClass().getSuperclass().getDeclaredField(fieldName);
-            field.setAccessible(true);
-            List<Object> list = (List<Object>) field.get(screen);
-            list.add(widget);
-        } catch (Exception e) {
-            // 静默忽略，可能是字段名不对
-        }
-    }
 }
@@ -2,22 +2,30 @@ package translation.modid.mixin.client;
 
 import net.minecraft.client.gui.components.ChatComponent;
 import net.minecraft.network.chat.Component;
-import net.minecraft.network.chat.MutableComponent;
 import net.minecraft.network.chat.Style;
 import net.minecraft.network.chat.HoverEvent;
 import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+import translation.modid.chat.ChatHoverPrefetcher;
 import translation.modid.config.TranslationConfig;
-import translation.modid.translator.TranslationManager;
-
-import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * 聊天悬停文本翻译Mixin
+ * 悬停文本在消息到达时已由 ChatHoverPrefetcher 预取，这里只读取译文并替换返回的样式
+ */
 @Mixin(ChatComponent.class)
 public class ChatComponentMixin {
 
-    private static final ConcurrentHashMap<String, String> chatTooltipCache = new ConcurrentHashMap<>();
+    // 上次替换的原样式、使用的译文组件和替换后的样式，鼠标停在同一片段上时直接复用
+    @Unique
+    private Style simpleTranslation$lastStyle;
+    @Unique
+    private Component simpleTranslation$lastTranslated;
+    @Unique
+    private Style simpleTranslation$lastResult;
 
     @Inject(method = "getClickedComponentStyleAt", at = @At("RETURN"), cancellable = true)
     private void translateChatTooltip(double mouseX, double mouseY, CallbackInfoReturnable<Style> cir) {
@@ -42,34 +50,15 @@ public class ChatComponentMixin {
             return;
         }
 
-        String originalText = hoverContent.getString();
-        if (originalText == null || originalText.trim().isEmpty() || containsChinese(originalText)) {
+        Component translatedComponent = ChatHoverPrefetcher.getInstance().getTranslated(hoverContent);
+        if (translatedComponent == null) {
             return;
         }
-
-        String cachedTranslation = chatTooltipCache.get(originalText);
-        if (cachedTranslation != null) {
-            MutableComponent translatedComponent = Component.literal(cachedTranslation);
-            translatedComponent.setStyle(hoverContent.getStyle());
-            HoverEvent translatedHoverEvent = new HoverEvent(HoverEvent.Action.SHOW_TEXT, translatedComponent);
-            Style newStyle = originalStyle.withHoverEvent(translatedHoverEvent);
-            cir.setReturnValue(newStyle);
-        } else {
-            translateAsync(originalText);
+        if (originalStyle != simpleTranslation$lastStyle || translatedComponent != simpleTranslation$lastTranslated) {
+            simpleTranslation$lastStyle = originalStyle;
+            simpleTranslation$lastTranslated = translatedComponent;
+            simpleTranslation$lastResult = originalStyle.withHoverEvent(new HoverEvent(HoverEvent.Action.SHOW_TEXT, translatedComponent));
         }
-    }
-
-    private void translateAsync(String text) {
-        TranslationManager.getInstance().translate(text)
-                .thenAccept(translated -> {
-                    if (translated != null && !translated.isEmpty() && !translated.equals(text)) {
-                        chatTooltipCache.put(text, translated);
-                    }
-                });
-    }
-
-    private boolean containsChinese(String text) {
-        return text.matches(".*[\\u4e00-\\u9fa5].*");
+        cir.setReturnValue(simpleTranslation$lastResult);
     }
 }
-
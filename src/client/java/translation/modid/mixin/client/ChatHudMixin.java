@@ -1,82 +1,169 @@
 package translation.modid.mixin.client;
 
-import net.minecraft.client.Minecraft;
+import net.minecraft.client.GuiMessage;
 import net.minecraft.client.GuiMessageTag;
+import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.components.ChatComponent;
+import net.minecraft.client.gui.components.ComponentRenderUtils;
 import net.minecraft.network.chat.Component;
-import net.minecraft.network.chat.MutableComponent;
 import net.minecraft.network.chat.MessageSignature;
+import net.minecraft.network.chat.MutableComponent;
+import net.minecraft.util.FormattedCharSequence;
+import net.minecraft.util.Mth;
+import org.spongepowered.asm.mixin.Final;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
 import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.ModifyVariable;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 import translation.modid.SimpleTranslation;
+import translation.modid.cache.CacheNamespace;
+import translation.modid.cache.NamespacedTextCache;
+import translation.modid.chat.ChatHoverPrefetcher;
+import translation.modid.chat.ChatLineHandle;
+import translation.modid.chat.ChatMessageSegments;
+import translation.modid.chat.ChatTranslationPipeline;
 import translation.modid.config.TranslationConfig;
-import translation.modid.translator.TranslationManager;
+import translation.modid.translator.ScriptDetector;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * 聊天消息翻译Mixin
+ * 消息按结构切分（ChatMessageSegments），只翻译和缓存正文，译文按原样式拼接后追加在原消息后。
+ * 已有译文的消息在加入聊天栏前直接追加译文；没有译文的消息先显示原文，并记录消息句柄（ChatLineHandle），
+ * 译文到达后原地替换聊天历史中的这条消息，只重新分行这条消息的显示行，不再发送第二条消息。
+ * 需要翻译的消息交给 ChatTranslationPipeline 按发送者排队、合并为批量翻译。
+ */
 @Mixin(ChatComponent.class)
 public abstract class ChatHudMixin {
     
     @Shadow
-    public abstract void addMessage(Component message, MessageSignature signature, GuiMessageTag tag);
+    @Final
+    private Minecraft minecraft;
+    
+    @Shadow
+    @Final
+    private List<GuiMessage> allMessages;
+    
+    @Shadow
+    @Final
+    private List<GuiMessage.Line> trimmedMessages;
+    
+    @Shadow
+    private int chatScrollbarPos;
+    
+    @Shadow
+    public abstract int getWidth();
+    
+    @Shadow
+    public abstract double getScale();
+    
+    @Shadow
+    public abstract int getLinesPerPage();
+    
+    @Shadow
+    private void refreshTrimmedMessage() {
+        throw new AssertionError();
+    }
     
     @Unique
-    private static final Set<String> translatingMessages = Collections.synchronizedSet(new HashSet<>());
+    private static final NamespacedTextCache translationCache = new NamespacedTextCache();
     
+    // 等待译文的正文 -> 包含这段正文的消息句柄
     @Unique
-    private static final Set<String> translatedMessages = Collections.synchronizedSet(new HashSet<>());
+    private static final Map<String, List<ChatLineHandle>> pendingHandles = new ConcurrentHashMap<>();
     
+    // 本次 addMessage 需要在消息加入后记录句柄的消息切分
     @Unique
-    private static boolean isProcessingTranslation = false;
+    private ChatMessageSegments simpleTranslation$awaitingSegments;
     
-    // 拦截所有三参数的addMessage方法
-    @Inject(
+    // 显示行整体重建（调整大小、删除消息）的次数，用于判断句柄中的显示行是否已失效
+    @Unique
+    private int simpleTranslation$lineGeneration;
+    
+    /**
+     * 消息加入聊天栏前：按结构切分消息，所有正文都有缓存译文时直接追加译文，否则记下切分结果，加入后请求翻译
+     * addMessage(Component) 也会调用这个方法
+     */
+    @ModifyVariable(
         method = "addMessage(Lnet/minecraft/network/chat/Component;Lnet/minecraft/network/chat/MessageSignature;Lnet/minecraft/client/GuiMessageTag;)V",
         at = @At("HEAD"),
-        cancellable = true
+        argsOnly = true
     )
-    private void onAddMessageWithSignature(Component message, MessageSignature signature, GuiMessageTag tag, CallbackInfo ci) {
-        if (!isProcessingTranslation) {
-            Component modified = tryAddTranslation(message);
-            if (modified != null) {
-                ci.cancel();
-                isProcessingTranslation = true;
-                this.addMessage(modified, signature, tag);
-                isProcessingTranslation = false;
-            }
+    private Component onAddMessage(Component message) {
+        simpleTranslation$awaitingSegments = null;
+        
+        // 预取消息中的悬停文本，悬停时直接显示译文
+        TranslationConfig config = TranslationConfig.getInstance();
+        if (config.enabled && config.autoTranslate && config.translateChatTooltip) {
+            ChatHoverPrefetcher.getInstance().prefetch(message);
         }
+        
+        ChatMessageSegments segments = getTranslatableSegments(message);
+        if (segments == null) {
+            return message;
+        }
+        
+        // 检查所有正文是否都有缓存的翻译
+        if (getMissingBodies(segments).isEmpty()) {
+            Component translation = segments.buildTranslation(translationCache::get);
+            return translation != null ? withTranslation(message, translation) : message;
+        }
+        
+        // 先显示原文，加入后记录句柄
+        simpleTranslation$awaitingSegments = segments;
+        return message;
     }
     
-    // 拦截单参数的addMessage方法
+    /**
+     * 消息加入聊天栏后记录句柄：新消息在 allMessages 的最前面，它的显示行在 trimmedMessages 的最前面
+     */
     @Inject(
-        method = "addMessage(Lnet/minecraft/network/chat/Component;)V",
-        at = @At("HEAD"),
-        cancellable = true
+        method = "addMessage(Lnet/minecraft/network/chat/Component;Lnet/minecraft/network/chat/MessageSignature;Lnet/minecraft/client/GuiMessageTag;)V",
+        at = @At("TAIL")
     )
-    private void onAddMessageSimple(Component message, CallbackInfo ci) {
-        if (!isProcessingTranslation) {
-            Component modified = tryAddTranslation(message);
-            if (modified != null) {
-                ci.cancel();
-                isProcessingTranslation = true;
-                this.addMessage(modified, null, null);
-                isProcessingTranslation = false;
+    private void afterAddMessage(Component message, MessageSignature signature, GuiMessageTag tag, CallbackInfo ci) {
+        ChatMessageSegments segments = simpleTranslation$awaitingSegments;
+        simpleTranslation$awaitingSegments = null;
+        if (segments == null || allMessages.isEmpty()) {
+            return;
+        }
+        
+        Set<String> missingBodies = getMissingBodies(segments);
+        ChatLineHandle handle = new ChatLineHandle(allMessages.get(0), captureLatestLines(), simpleTranslation$lineGeneration,
+                segments, missingBodies);
+        String sender = ChatTranslationPipeline.getInstance().resolveSender(segments.getSenderName());
+        for (String body : missingBodies) {
+            boolean[] firstRequest = new boolean[1];
+            pendingHandles.compute(body, (k, handles) -> {
+                if (handles == null) {
+                    handles = new ArrayList<>();
+                    firstRequest[0] = true;
+                }
+                handles.add(handle);
+                return handles;
+            });
+            // 同一正文正在排队或翻译时只追加句柄，译文到达后一起替换
+            if (firstRequest[0]) {
+                translateBody(sender, body);
             }
         }
     }
     
-    @Unique
-    private static final Map<String, String> translationCache = new java.util.concurrent.ConcurrentHashMap<>();
-    
-    @Unique
-    private static final Map<String, Component> pendingMessages = new java.util.concurrent.ConcurrentHashMap<>();
+    /**
+     * 显示行整体重建时记录，之后替换消息时按历史重新分行
+     */
+    @Inject(method = "refreshTrimmedMessage", at = @At("HEAD"))
+    private void onRefreshTrimmedMessage(CallbackInfo ci) {
+        simpleTranslation$lineGeneration++;
+    }
     
     @Unique
-    private Component tryAddTranslation(Component message) {
+    private ChatMessageSegments getTranslatableSegments(Component message) {
         TranslationConfig config = TranslationConfig.getInstance();
         
         if (!config.enabled || !config.autoTranslate) {
@@ -94,80 +181,168 @@ public abstract class ChatHudMixin {
             return null;
         }
         
-        // 跳过已经是中文的消息（包含中文字符）
-        if (containsChinese(originalText)) {
-            return null;
-        }
-        
         // 跳过系统UI消息
         if (isSystemUIMessage(originalText)) {
             return null;
         }
         
-        // 检查是否有缓存的翻译
-        String cached = translationCache.get(originalText);
-        if (cached != null) {
-            // 在原消息后追加翻译（同一行，紧贴）
-            MutableComponent modified = message.copy();
-            modified.append(Component.literal(" §a" + cached));
-            return modified;
+        // 只翻译正文，消息头（发送者、头衔、时间）和链接保持原样
+        return ChatMessageSegments.of(message);
+    }
+    
+    /**
+     * 还没有缓存译文、需要翻译的正文（已经是中文的正文不翻译）
+     */
+    @Unique
+    private Set<String> getMissingBodies(ChatMessageSegments segments) {
+        Set<String> missing = new LinkedHashSet<>();
+        for (String body : segments.getBodyTexts()) {
+            if (translationCache.get(body) == null && ScriptDetector.needsTranslation(body) && !isSystemUIMessage(body)) {
+                missing.add(body);
+            }
         }
-        
-        // 启动异步翻译，并记录这条消息等待后续追加
-        translateMessage(originalText, message);
-        
-        return null; // 先显示原文
+        return missing;
     }
     
     @Unique
-    private void translateMessage(String originalText, Component originalMessage) {
-        if (translatingMessages.contains(originalText)) {
+    private void translateBody(String sender, String body) {
+        // 提交时确定命名空间，译文写入发起请求时的命名空间
+        CacheNamespace namespace = CacheNamespace.current();
+        ChatTranslationPipeline.getInstance().submit(sender, body,
+            translatedText -> {
+                SimpleTranslation.LOGGER.debug("翻译成功: {} -> {}", body, translatedText);
+                
+                // 缓存翻译结果（只缓存正文，不同发送者的相同内容共用）
+                translationCache.put(namespace, body, translatedText);
+                
+                // 在主线程中原地替换等待这段译文的消息
+                Minecraft.getInstance().execute(() -> onBodyResolved(body));
+            },
+            // 被丢弃或没有译文的正文保持原文
+            () -> Minecraft.getInstance().execute(() -> onBodyResolved(body)));
+    }
+    
+    /**
+     * 一段正文有了结果：等待它的消息如果所有正文都有了结果，按原样式拼出译文并原地替换
+     */
+    @Unique
+    private void onBodyResolved(String body) {
+        List<ChatLineHandle> handles = pendingHandles.remove(body);
+        if (handles == null) {
             return;
         }
-        translatingMessages.add(originalText);
-        pendingMessages.put(originalText, originalMessage);
-        
-        SimpleTranslation.LOGGER.info("准备翻译消息: {}", originalText);
-        
-        TranslationManager.getInstance().translate(originalText)
-            .thenAccept(translatedText -> {
-                try {
-                    if (translatedText != null && !translatedText.equals(originalText)) {
-                        SimpleTranslation.LOGGER.info("翻译成功: {} -> {}", originalText, translatedText);
-                        
-                        // 缓存翻译结果
-                        translationCache.put(originalText, translatedText);
-                        translatedMessages.add(originalText);
-                        translatedMessages.add(translatedText);
-                        
-                        // 立即在聊天栏追加翻译（紧贴在原消息后面）
-                        Minecraft mc = Minecraft.getInstance();
-                        if (mc != null && mc.gui != null && mc.gui.getChat() != null) {
-                            Component msgToDisplay = pendingMessages.get(originalText);
-                            if (msgToDisplay != null) {
-                                // 在主线程中添加包含翻译的完整消息
-                                mc.execute(() -> {
-                                    MutableComponent fullMessage = msgToDisplay.copy();
-                                    fullMessage.append(Component.literal(" §a" + translatedText));
-                                    
-                                    isProcessingTranslation = true;
-                                    this.addMessage(fullMessage, null, null);
-                                    isProcessingTranslation = false;
-                                });
-                            }
-                        }
-                    }
-                } finally {
-                    translatingMessages.remove(originalText);
-                    pendingMessages.remove(originalText);
+        for (ChatLineHandle handle : handles) {
+            if (handle.resolve(body)) {
+                Component translation = handle.getSegments().buildTranslation(translationCache::get);
+                if (translation != null) {
+                    replaceMessage(handle, translation);
                 }
-            })
-            .exceptionally(e -> {
-                SimpleTranslation.LOGGER.error("翻译出错: " + originalText, e);
-                translatingMessages.remove(originalText);
-                pendingMessages.remove(originalText);
-                return null;
-            });
+            }
+        }
+    }
+    
+    /**
+     * 原地替换句柄对应的消息，并只重新分行这条消息的显示行
+     */
+    @Unique
+    private void replaceMessage(ChatLineHandle handle, Component translation) {
+        GuiMessage original = handle.getMessage();
+        int messageIndex = indexOfInstance(allMessages, original);
+        if (messageIndex < 0) {
+            // 消息已被删除、清空或超出历史长度
+            return;
+        }
+        GuiMessage patched = new GuiMessage(original.addedTime(), withTranslation(original.content(), translation),
+                original.signature(), original.tag());
+        allMessages.set(messageIndex, patched);
+        
+        List<GuiMessage.Line> oldLines = handle.getLines();
+        int lineIndex = oldLines.isEmpty() ? -1 : indexOfInstance(trimmedMessages, oldLines.get(0));
+        if (lineIndex < 0 || !linesMatch(lineIndex, oldLines)) {
+            handle.update(patched, List.of());
+            if (handle.getGeneration() != simpleTranslation$lineGeneration) {
+                // 记录句柄后显示行被整体重建过，按已经替换的历史重新分行
+                refreshTrimmedMessage();
+            }
+            // 否则这条消息的显示行已经超出显示行上限，只替换历史即可
+            return;
+        }
+        
+        // 移除旧的显示行（同一条消息的显示行在 trimmedMessages 中连续，最后一行在前）
+        int oldCount = Math.min(oldLines.size(), trimmedMessages.size() - lineIndex);
+        trimmedMessages.subList(lineIndex, lineIndex + oldCount).clear();
+        
+        // 按 addMessage 的方式重新分行并插入到原位置
+        List<FormattedCharSequence> wrapped = ComponentRenderUtils.wrapComponents(patched.content(), getMessageWidth(patched.tag()), minecraft.font);
+        for (int j = 0; j < wrapped.size(); j++) {
+            trimmedMessages.add(lineIndex, new GuiMessage.Line(patched.addedTime(), wrapped.get(j), patched.tag(), j == wrapped.size() - 1));
+        }
+        handle.update(patched, new ArrayList<>(trimmedMessages.subList(lineIndex, lineIndex + wrapped.size())));
+        
+        // 向上滚动查看历史时，下方消息变长不应让当前看到的内容跳动
+        int delta = wrapped.size() - oldCount;
+        if (chatScrollbarPos > 0 && lineIndex < chatScrollbarPos) {
+            chatScrollbarPos = Math.max(0, chatScrollbarPos + delta);
+        }
+        while (trimmedMessages.size() > 100) {
+            trimmedMessages.remove(trimmedMessages.size() - 1);
+        }
+        chatScrollbarPos = Math.min(chatScrollbarPos, Math.max(0, trimmedMessages.size() - getLinesPerPage()));
+    }
+    
+    /**
+     * 最新一条消息的显示行：从 trimmedMessages 开头到上一条消息的最后一行之前
+     */
+    @Unique
+    private List<GuiMessage.Line> captureLatestLines() {
+        List<GuiMessage.Line> lines = new ArrayList<>();
+        for (int i = 0; i < trimmedMessages.size(); i++) {
+            GuiMessage.Line line = trimmedMessages.get(i);
+            if (i > 0 && line.endOfEntry()) {
+                break;
+            }
+            lines.add(line);
+        }
+        return lines;
+    }
+    
+    @Unique
+    private boolean linesMatch(int start, List<GuiMessage.Line> lines) {
+        for (int i = 0; i < lines.size() && start + i < trimmedMessages.size(); i++) {
+            if (trimmedMessages.get(start + i) != lines.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    @Unique
+    private int getMessageWidth(GuiMessageTag tag) {
+        int width = Mth.floor((double) getWidth() / getScale());
+        if (tag != null && tag.icon() != null) {
+            width -= tag.icon().width + 4 + 2;
+        }
+        return width;
+    }
+    
+    @Unique
+    private static <T> int indexOfInstance(List<T> list, T target) {
+        for (int i = 0; i < list.size(); i++) {
+            if (list.get(i) == target) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * 在原消息后追加翻译（同一行，紧贴）
+     */
+    @Unique
+    private static Component withTranslation(Component message, Component translation) {
+        MutableComponent modified = message.copy();
+        modified.append(translation);
+        return modified;
     }
     
     @Unique
@@ -186,17 +361,4 @@ public abstract class ChatHudMixin {
         
         return false;
     }
-    
-    @Unique
-    private boolean containsChinese(String text) {
-        // 检查是否包含中文字符
-        for (char c : text.toCharArray()) {
-            if (Character.UnicodeBlock.of(c) == Character.UnicodeBlock.CJK_UNIFIED_IDEOGRAPHS) {
-                return true;
-            }
-        }
-        return false;
-    }
-    
 }
-
@@ -0,0 +1,36 @@
+package translation.modid.mixin.client;
+
+import com.mojang.authlib.GameProfile;
+import net.minecraft.client.multiplayer.chat.ChatListener;
+import net.minecraft.network.chat.ChatType;
+import net.minecraft.network.chat.Component;
+import net.minecraft.network.chat.PlayerChatMessage;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+import translation.modid.chat.ChatTranslationPipeline;
+
+import java.time.Instant;
+
+/**
+ * 玩家消息发送者Mixin
+ * 显示玩家消息期间记录发送者，ChatTranslationPipeline 按发送者公平排队
+ */
+@Mixin(ChatListener.class)
+public class ChatListenerMixin {
+
+    @Inject(method = "showMessageToPlayer", at = @At("HEAD"))
+    private void beforeShowMessage(ChatType.Bound boundChatType, PlayerChatMessage chatMessage, Component decoratedServerContent,
+                                   GameProfile gameProfile, boolean onlyShowSecureChat, Instant timestamp,
+                                   CallbackInfoReturnable<Boolean> cir) {
+        ChatTranslationPipeline.getInstance().beginPlayerMessage(gameProfile.getId());
+    }
+
+    @Inject(method = "showMessageToPlayer", at = @At("RETURN"))
+    private void afterShowMessage(ChatType.Bound boundChatType, PlayerChatMessage chatMessage, Component decoratedServerContent,
+                                  GameProfile gameProfile, boolean onlyShowSecureChat, Instant timestamp,
+                                  CallbackInfoReturnable<Boolean> cir) {
+        ChatTranslationPipeline.getInstance().endPlayerMessage();
+    }
+}
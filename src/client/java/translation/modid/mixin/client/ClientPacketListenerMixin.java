@@ -0,0 +1,89 @@
+package translation.modid.mixin.client;
+
+import net.minecraft.client.multiplayer.ClientLevel;
+import net.minecraft.client.multiplayer.ClientPacketListener;
+import net.minecraft.network.protocol.game.ClientboundSetDisplayObjectivePacket;
+import net.minecraft.network.protocol.game.ClientboundSetObjectivePacket;
+import net.minecraft.network.protocol.game.ClientboundSetPlayerTeamPacket;
+import net.minecraft.network.protocol.game.ClientboundSetScorePacket;
+import net.minecraft.server.ServerScoreboard;
+import net.minecraft.world.scores.Objective;
+import net.minecraft.world.scores.PlayerTeam;
+import net.minecraft.world.scores.Scoreboard;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import translation.modid.scoreboard.ScoreboardTranslationManager;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 客户端数据包处理 Mixin - 在数据包到达时预先准备需要翻译的文本
+ * 注入在处理方法末尾：处理方法先切换到主线程执行，末尾注入只在主线程中、数据已经写入计分板后执行一次
+ */
+@Mixin(ClientPacketListener.class)
+public abstract class ClientPacketListenerMixin {
+
+    @Shadow
+    private ClientLevel level;
+
+    /**
+     * 计分项添加或显示名称变化
+     */
+    @Inject(method = "handleAddObjective", at = @At("TAIL"))
+    private void onAddObjective(ClientboundSetObjectivePacket packet, CallbackInfo ci) {
+        if (packet.getMethod() == ClientboundSetObjectivePacket.METHOD_REMOVE || this.level == null) {
+            return;
+        }
+        // 使用计分板中保存的组件实例，渲染时按同一实例命中备忘
+        Objective objective = this.level.getScoreboard().getObjective(packet.getObjectiveName());
+        if (objective != null) {
+            ScoreboardTranslationManager.getInstance().onObjectiveUpdated(objective.getDisplayName());
+        }
+    }
+
+    /**
+     * 分数变化（新的行）
+     */
+    @Inject(method = "handleSetScore", at = @At("TAIL"))
+    private void onSetScore(ClientboundSetScorePacket packet, CallbackInfo ci) {
+        if (packet.getMethod() != ServerScoreboard.Method.CHANGE || this.level == null) {
+            return;
+        }
+        ScoreboardTranslationManager.getInstance().onOwnersUpdated(this.level.getScoreboard(), List.of(packet.getOwner()));
+    }
+
+    /**
+     * 侧边栏显示的计分项变化
+     */
+    @Inject(method = "handleSetDisplayObjective", at = @At("TAIL"))
+    private void onSetDisplayObjective(ClientboundSetDisplayObjectivePacket packet, CallbackInfo ci) {
+        if (this.level == null) {
+            return;
+        }
+        ScoreboardTranslationManager.getInstance().onDisplayObjectiveChanged(this.level.getScoreboard());
+    }
+
+    /**
+     * 队伍前后缀或成员变化（侧边栏的行常用队伍前后缀显示文本）
+     */
+    @Inject(method = "handleSetPlayerTeamPacket", at = @At("TAIL"))
+    private void onSetPlayerTeam(ClientboundSetPlayerTeamPacket packet, CallbackInfo ci) {
+        if (this.level == null) {
+            return;
+        }
+        Scoreboard scoreboard = this.level.getScoreboard();
+        Collection<String> owners = packet.getPlayers();
+        if (packet.getParameters().isPresent()) {
+            // 队伍参数变化影响所有成员
+            PlayerTeam team = scoreboard.getPlayerTeam(packet.getName());
+            if (team != null) {
+                owners = team.getPlayers();
+            }
+        }
+        ScoreboardTranslationManager.getInstance().onOwnersUpdated(scoreboard, owners);
+    }
+}
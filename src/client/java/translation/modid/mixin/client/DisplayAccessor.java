@@ -0,0 +1,15 @@
+package translation.modid.mixin.client;
+
+import net.minecraft.world.entity.Display;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Accessor;
+
+/**
+ * 显示实体访问器 - 标记渲染状态需要重建
+ * 文字显示实体的渲染状态（包括文本）只在同步数据变化后的下一个tick重建，翻译完成后通过该标记让渲染器重新读取文本
+ */
+@Mixin(Display.class)
+public interface DisplayAccessor {
+    @Accessor("updateRenderState")
+    void setUpdateRenderState(boolean updateRenderState);
+}
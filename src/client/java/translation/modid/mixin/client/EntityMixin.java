@@ -3,12 +3,16 @@ package translation.modid.mixin.client;
 import net.minecraft.network.chat.Component;
 import net.minecraft.network.chat.MutableComponent;
 import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.player.Player;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+import translation.modid.cache.CacheNamespace;
+import translation.modid.cache.NamespacedTextCache;
 import translation.modid.config.TranslationConfig;
+import translation.modid.translator.ScriptDetector;
 import translation.modid.translator.TranslationManager;
 
 import java.util.concurrent.ConcurrentHashMap;
@@ -17,11 +21,23 @@ import java.util.concurrent.ConcurrentHashMap;
 public abstract class EntityMixin {
     
     @Unique
-    private static final ConcurrentHashMap<String, String> entityNameCache = new ConcurrentHashMap<>();
+    private static final NamespacedTextCache entityNameCache = new NamespacedTextCache();
     
     @Unique
     private static final ConcurrentHashMap<String, Long> pendingTranslations = new ConcurrentHashMap<>();
 
+    // 显示名称备忘：来源组件（按引用比较）、展开后的原文、是否需要翻译、缓存命名空间和译文组件
+    @Unique
+    private Component simpleTranslation$nameSource;
+    @Unique
+    private String simpleTranslation$nameText;
+    @Unique
+    private boolean simpleTranslation$nameTranslatable;
+    @Unique
+    private CacheNamespace simpleTranslation$nameNamespace;
+    @Unique
+    private Component simpleTranslation$translatedName;
+
     @Inject(method = "getDisplayName", at = @At("RETURN"), cancellable = true)
     private void translateDisplayName(CallbackInfoReturnable<Component> cir) {
         TranslationConfig config = TranslationConfig.getInstance();
@@ -35,14 +51,33 @@ public abstract class EntityMixin {
             return;
         }
 
-        String nameText = originalName.getString();
-        if (nameText == null || nameText.trim().isEmpty() || containsChinese(nameText)) {
+        // getDisplayName() 每次都构造新组件，按名称的来源组件备忘：
+        // 没有队伍时显示名称的文本只取决于自定义名称（同步数据中的同一实例）或实体类型名称，
+        // 有队伍（前后缀）或是玩家时使用返回值本身
+        Entity self = (Entity)(Object)this;
+        Component source;
+        if (self instanceof Player || self.getTeam() != null) {
+            source = originalName;
+        } else {
+            Component customName = self.getCustomName();
+            source = customName != null ? customName : self.getType().getDescription();
+        }
+        if (source != simpleTranslation$nameSource) {
+            simpleTranslation$nameSource = source;
+            simpleTranslation$nameText = originalName.getString();
+            simpleTranslation$nameTranslatable = shouldTranslate(simpleTranslation$nameText);
+            simpleTranslation$nameNamespace = null;
+            simpleTranslation$translatedName = null;
+        }
+        if (!simpleTranslation$nameTranslatable) {
             return;
         }
+        String nameText = simpleTranslation$nameText;
 
-        // 跳过玩家名称（通常不需要翻译，玩家名称通常包含格式代码）
-        if (nameText.contains("§") && nameText.length() < 20) {
-            // 可能是格式化的玩家名称，跳过
+        // 当前命名空间已经构造过译文组件时直接复用
+        CacheNamespace namespace = CacheNamespace.current();
+        if (simpleTranslation$translatedName != null && simpleTranslation$nameNamespace == namespace) {
+            cir.setReturnValue(simpleTranslation$translatedName);
             return;
         }
 
@@ -51,6 +86,8 @@ public abstract class EntityMixin {
         if (cachedTranslation != null) {
             MutableComponent translatedName = Component.literal(cachedTranslation);
             translatedName.setStyle(originalName.getStyle());
+            simpleTranslation$nameNamespace = namespace;
+            simpleTranslation$translatedName = translatedName;
             cir.setReturnValue(translatedName);
             return;
         }
@@ -64,10 +101,10 @@ public abstract class EntityMixin {
 
         // 开始异步翻译
         pendingTranslations.put(nameText, System.currentTimeMillis());
-        TranslationManager.getInstance().translate(nameText)
+        TranslationManager.getInstance().translate(nameText, namespace)
                 .thenAccept(translated -> {
                     if (translated != null && !translated.isEmpty() && !translated.equals(nameText)) {
-                        entityNameCache.put(nameText, translated);
+                        entityNameCache.put(namespace, nameText, translated);
                     }
                     pendingTranslations.remove(nameText);
                 });
@@ -77,9 +114,11 @@ public abstract class EntityMixin {
     }
 
     @Unique
-    private boolean containsChinese(String text) {
-        if (text == null) return false;
-        return text.matches(".*[\\u4e00-\\u9fa5].*");
+    private boolean shouldTranslate(String nameText) {
+        if (!ScriptDetector.needsTranslation(nameText)) {
+            return false;
+        }
+        // 跳过玩家名称（通常不需要翻译，玩家名称通常包含格式代码）
+        return !(nameText.contains("§") && nameText.length() < 20);
     }
 }
-
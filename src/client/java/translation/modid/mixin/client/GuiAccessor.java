@@ -0,0 +1,18 @@
+package translation.modid.mixin.client;
+
+import net.minecraft.client.gui.Gui;
+import net.minecraft.network.chat.Component;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Accessor;
+
+/**
+ * Gui 访问器 - 读写当前显示的 actionbar 消息
+ */
+@Mixin(Gui.class)
+public interface GuiAccessor {
+    @Accessor("overlayMessageString")
+    Component getOverlayMessage();
+
+    @Accessor("overlayMessageString")
+    void setOverlayMessage(Component overlayMessage);
+}
@@ -0,0 +1,16 @@
+package translation.modid.mixin.client;
+
+import net.minecraft.client.gui.components.events.GuiEventListener;
+import net.minecraft.client.gui.narration.NarratableEntry;
+import net.minecraft.client.gui.screens.Screen;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Invoker;
+
+/**
+ * 界面访问器 - 向原版界面添加子组件（书本界面的翻译按钮）
+ */
+@Mixin(Screen.class)
+public interface ScreenAccessor {
+    @Invoker("addWidget")
+    <T extends GuiEventListener & NarratableEntry> T invokeAddWidget(T widget);
+}
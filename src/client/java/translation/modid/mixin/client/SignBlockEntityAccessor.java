@@ -0,0 +1,19 @@
+package translation.modid.mixin.client;
+
+import net.minecraft.world.level.block.entity.SignBlockEntity;
+import net.minecraft.world.level.block.entity.SignText;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Accessor;
+
+/**
+ * 告示牌方块实体访问器 - 读取未经翻译替换的原始文本
+ * getFrontText() 会被 SignBlockEntityMixin 替换为译文，计算内容键时必须读取原始字段
+ */
+@Mixin(SignBlockEntity.class)
+public interface SignBlockEntityAccessor {
+    @Accessor("frontText")
+    SignText getRawFrontText();
+
+    @Accessor("backText")
+    SignText getRawBackText();
+}
@@ -1,12 +1,16 @@
 package translation.modid.mixin.client;
 
 import net.minecraft.core.BlockPos;
+import net.minecraft.nbt.CompoundTag;
 import net.minecraft.network.chat.Component;
+import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.entity.SignBlockEntity;
 import net.minecraft.world.level.block.entity.SignText;
 import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 import translation.modid.config.TranslationConfig;
 import translation.modid.sign.SignTranslationManager;
@@ -17,6 +21,14 @@ import translation.modid.sign.SignTranslationManager;
 @Mixin(SignBlockEntity.class)
 public class SignBlockEntityMixin {
     
+    // 上次构造的译文 SignText 及其来源（译文数组和原始 SignText），来源未变时直接复用，渲染时不再每帧分配
+    @Unique
+    private Component[] simpleTranslation$cachedLines;
+    @Unique
+    private SignText simpleTranslation$cachedOriginal;
+    @Unique
+    private SignText simpleTranslation$cachedTranslated;
+    
     /**
      * 拦截获取正面文本的方法，返回翻译后的文本
      */
@@ -36,16 +48,50 @@ public class SignBlockEntityMixin {
         if (translatedLines != null) {
             SignText original = cir.getReturnValue();
             
-            // 创建一个新的 SignText，包含翻译后的文本
-            SignText translated = new SignText(
-                translatedLines,
-                translatedLines, // filtered messages 也使用翻译文本
-                original.getColor(),
-                original.hasGlowingText()
-            );
+            // 译文和原始文本（颜色、发光）都没有变化时复用上次构造的 SignText
+            if (translatedLines != simpleTranslation$cachedLines || original != simpleTranslation$cachedOriginal) {
+                simpleTranslation$cachedTranslated = new SignText(
+                    translatedLines,
+                    translatedLines, // filtered messages 也使用翻译文本
+                    original.getColor(),
+                    original.hasGlowingText()
+                );
+                simpleTranslation$cachedLines = translatedLines;
+                simpleTranslation$cachedOriginal = original;
+            }
             
-            cir.setReturnValue(translated);
+            cir.setReturnValue(simpleTranslation$cachedTranslated);
+        }
+    }
+    
+    /**
+     * 告示牌数据读取后（方块实体数据包或区块数据）重新计算内容键
+     * 区块数据创建的告示牌在读取数据前已经加入世界，BLOCK_ENTITY_LOAD 事件也会记录一次，重复计算结果相同；
+     * 这里只需排除内置服务器的告示牌（见 simpleTranslation$isClientSide）
+     */
+    @Inject(method = "load", at = @At("TAIL"))
+    private void onLoad(CompoundTag tag, CallbackInfo ci) {
+        if (simpleTranslation$isClientSide()) {
+            SignTranslationManager.getInstance().onSignTextChanged((SignBlockEntity)(Object)this);
+        }
+    }
+    
+    /**
+     * 告示牌文本被修改（本地编辑）后重新计算内容键
+     */
+    @Inject(method = "setText", at = @At("RETURN"))
+    private void onSetText(SignText text, boolean isFrontText, CallbackInfoReturnable<Boolean> cir) {
+        if (simpleTranslation$isClientSide()) {
+            SignTranslationManager.getInstance().onSignTextChanged((SignBlockEntity)(Object)this);
         }
     }
+    
+    /**
+     * 是否是客户端世界中的告示牌；单人游戏时内置服务器的告示牌也会执行这些方法，不应记录到客户端的位置映射中
+     */
+    @Unique
+    private boolean simpleTranslation$isClientSide() {
+        Level level = ((SignBlockEntity)(Object)this).getLevel();
+        return level != null && level.isClientSide;
+    }
 }
-
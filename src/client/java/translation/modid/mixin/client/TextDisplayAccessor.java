@@ -0,0 +1,15 @@
+package translation.modid.mixin.client;
+
+import net.minecraft.world.entity.Display;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Accessor;
+
+/**
+ * 文字显示实体访问器
+ * clientDisplayCache 是渲染器使用的分行文本缓存，译文变化时清除以便按新文本重新分行
+ */
+@Mixin(Display.TextDisplay.class)
+public interface TextDisplayAccessor {
+    @Accessor("clientDisplayCache")
+    void setClientDisplayCache(Display.TextDisplay.CachedInfo cachedInfo);
+}
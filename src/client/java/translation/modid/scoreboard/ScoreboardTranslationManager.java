@@ -0,0 +1,343 @@
+package translation.modid.scoreboard;
+
+import net.minecraft.ChatFormatting;
+import net.minecraft.client.Minecraft;
+import net.minecraft.network.chat.Component;
+import net.minecraft.network.chat.MutableComponent;
+import net.minecraft.network.chat.contents.LiteralContents;
+import net.minecraft.world.scores.Objective;
+import net.minecraft.world.scores.PlayerTeam;
+import net.minecraft.world.scores.Score;
+import net.minecraft.world.scores.Scoreboard;
+import net.minecraft.world.scores.Team;
+import translation.modid.cache.CacheNamespace;
+import translation.modid.cache.ComponentTranslationMemo;
+import translation.modid.cache.NamespacedTextCache;
+import translation.modid.config.TranslationConfig;
+import translation.modid.translator.ScriptDetector;
+import translation.modid.translator.TranslationBatchQueue;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 计分板（侧边栏）翻译管理器
+ * 侧边栏标题按计分项显示名称组件备忘；每一行按分数持有者备忘，只有持有者所在队伍或队伍前后缀变化时才重新展开和查找译文，
+ * 渲染时不再展开组件树，也不再构造新的组件。
+ *
+ * 计分项、分数、显示位置和队伍数据包到达时（ClientPacketListenerMixin）预先构建标题和行并加入批处理队列，
+ * 每个客户端tick结束时把这一批数据包带来的文本合并为一次批量翻译；渲染时只读取已经准备好的结果。
+ *
+ * 请求记录按缓存命名空间区分，切换语言或翻译接口后立即按新的命名空间重新请求；翻译失败的文本过 RETRY_DELAY 后重新请求。
+ */
+public class ScoreboardTranslationManager {
+    private static final ScoreboardTranslationManager INSTANCE = new ScoreboardTranslationManager();
+
+    // 备忘的行数上限，超过时清空重建（侧边栏通常只有十几行）
+    private static final int MAX_LINES = 512;
+
+    // 请求记录的上限，超过时清空（标题和行的文本变化频繁时不无限增长）
+    private static final int MAX_REQUESTS = 1024;
+
+    // 翻译失败后重新请求的间隔（毫秒）
+    private static final long RETRY_DELAY = 30000;
+
+    private final NamespacedTextCache scoreboardCache = new NamespacedTextCache();
+
+    private final ComponentTranslationMemo titleMemo = new ComponentTranslationMemo(64, text -> shouldTranslate(text, true));
+
+    // 分数持有者 -> 侧边栏行
+    private final Map<String, SidebarLine> lines = new ConcurrentHashMap<>();
+
+    // 已经请求过翻译的标题和行文本 -> 请求状态（渲染时不重复请求）
+    private final Map<String, RequestState> requests = new ConcurrentHashMap<>();
+
+    // 数据包带来的待翻译文本，每tick合并提交一次
+    private final TranslationBatchQueue batchQueue = new TranslationBatchQueue("Scoreboard", this::onBatchTranslated,
+            this::onBatchFailed);
+
+    private ScoreboardTranslationManager() {
+    }
+
+    public static ScoreboardTranslationManager getInstance() {
+        return INSTANCE;
+    }
+
+    private static boolean isEnabled() {
+        TranslationConfig config = TranslationConfig.getInstance();
+        return config.enabled && config.autoTranslate && config.translateScoreboard;
+    }
+
+    /**
+     * 侧边栏标题（计分项显示名称）
+     * @return 译文组件，没有译文时返回原组件
+     */
+    public Component getTitle(Component displayName) {
+        if (displayName == null || !isEnabled()) {
+            return displayName;
+        }
+        ComponentTranslationMemo.Entry entry = titleMemo.get(displayName);
+        Component translated = titleMemo.translated(entry, scoreboardCache);
+        if (translated != null) {
+            return translated;
+        }
+        if (entry.isTranslatable()) {
+            // 正常情况下数据包到达时已经加入队列，这里只补上开启翻译前就存在的标题、切换命名空间和失败后的重试
+            request(entry.getText());
+        }
+        return displayName;
+    }
+
+    /**
+     * 侧边栏的一行（替代 PlayerTeam.formatNameForTeam）
+     * @param team 分数持有者所在队伍
+     * @param name 分数持有者名称组件（每帧新建，只在行需要重建时读取）
+     * @return 译文组件，没有译文时返回格式化后的原文
+     */
+    public MutableComponent getLine(Team team, Component name) {
+        if (!isEnabled()) {
+            return PlayerTeam.formatNameForTeam(team, name);
+        }
+
+        // 名称是分数持有者的纯文本组件，直接取文本，不展开组件树
+        String owner = name.getContents() instanceof LiteralContents literal ? literal.text() : name.getString();
+        SidebarLine line = resolveLine(owner, team, name);
+        if (!line.translatable) {
+            return line.original;
+        }
+
+        // 当前命名空间已经构造过译文组件时直接复用
+        CacheNamespace namespace = CacheNamespace.current();
+        if (line.translated != null && line.namespace == namespace) {
+            return line.translated;
+        }
+        String cachedTranslation = scoreboardCache.get(line.text);
+        if (cachedTranslation != null) {
+            MutableComponent translated = Component.literal(cachedTranslation);
+            translated.setStyle(line.original.getStyle());
+            line.namespace = namespace;
+            line.translated = translated;
+            return translated;
+        }
+        // 正常情况下数据包到达时已经加入队列，这里只补上开启翻译前就存在的行、切换命名空间和失败后的重试
+        request(line.text);
+        return line.original;
+    }
+
+    /**
+     * 获取或重建分数持有者的行（队伍或队伍前后缀、颜色变化时重建）
+     */
+    private SidebarLine resolveLine(String owner, Team team, Component name) {
+        SidebarLine line = lines.get(owner);
+        if (line == null || !line.matches(team)) {
+            if (lines.size() >= MAX_LINES) {
+                lines.clear();
+            }
+            MutableComponent formatted = PlayerTeam.formatNameForTeam(team, name);
+            String text = formatted.getString();
+            line = new SidebarLine(team, formatted, text, shouldTranslate(text, false));
+            lines.put(owner, line);
+        }
+        return line;
+    }
+
+    /**
+     * 计分项数据包：预先展开标题并加入队列
+     */
+    public void onObjectiveUpdated(Component displayName) {
+        if (displayName == null || !isEnabled()) {
+            return;
+        }
+        ComponentTranslationMemo.Entry entry = titleMemo.get(displayName);
+        if (entry.isTranslatable() && scoreboardCache.get(entry.getText()) == null) {
+            request(entry.getText());
+        }
+    }
+
+    /**
+     * 分数或队伍数据包：预先构建分数持有者在侧边栏中的行并加入队列
+     * 只处理当前侧边栏计分项中有分数的持有者
+     */
+    public void onOwnersUpdated(Scoreboard scoreboard, Collection<String> owners) {
+        if (!isEnabled()) {
+            return;
+        }
+        Objective objective = getSidebarObjective(scoreboard);
+        if (objective == null) {
+            return;
+        }
+        for (String owner : owners) {
+            if (scoreboard.hasPlayerScore(owner, objective)) {
+                prepareLine(scoreboard, owner);
+            }
+        }
+    }
+
+    /**
+     * 显示位置数据包：侧边栏切换到新的计分项时，预先构建标题和全部行
+     */
+    public void onDisplayObjectiveChanged(Scoreboard scoreboard) {
+        if (!isEnabled()) {
+            return;
+        }
+        Objective objective = getSidebarObjective(scoreboard);
+        if (objective == null) {
+            return;
+        }
+        onObjectiveUpdated(objective.getDisplayName());
+        for (Score score : scoreboard.getPlayerScores(objective)) {
+            prepareLine(scoreboard, score.getOwner());
+        }
+    }
+
+    private void prepareLine(Scoreboard scoreboard, String owner) {
+        SidebarLine line = resolveLine(owner, scoreboard.getPlayersTeam(owner), Component.literal(owner));
+        if (line.translatable && scoreboardCache.get(line.text) == null) {
+            request(line.text);
+        }
+    }
+
+    /**
+     * 当前命名空间下还没有请求过、或上次失败已超过重试间隔时加入队列
+     */
+    private void request(String text) {
+        CacheNamespace namespace = CacheNamespace.current();
+        RequestState state = requests.get(text);
+        if (state != null && state.namespace == namespace
+                && (state.failedAt == 0 || System.currentTimeMillis() - state.failedAt < RETRY_DELAY)) {
+            return;
+        }
+        if (requests.size() >= MAX_REQUESTS) {
+            requests.clear();
+        }
+        requests.put(text, new RequestState(namespace, 0));
+        batchQueue.enqueue(text);
+    }
+
+    /**
+     * 批量翻译完成（翻译线程）；译文与原文相同时只保留请求记录，该命名空间下不再请求，也不替换原文
+     */
+    private void onBatchTranslated(CacheNamespace namespace, String text, String translated) {
+        if (!translated.equals(text)) {
+            scoreboardCache.put(namespace, text, translated);
+        }
+    }
+
+    /**
+     * 批量翻译失败（翻译线程）：记录失败时间，过 RETRY_DELAY 后渲染或数据包到达时重新请求
+     */
+    private void onBatchFailed(String text) {
+        long now = System.currentTimeMillis();
+        requests.computeIfPresent(text, (k, state) -> new RequestState(state.namespace, now));
+    }
+
+    /**
+     * 当前显示在侧边栏的计分项（与 Gui 的选择规则一致：优先玩家所在队伍颜色对应的位置）
+     */
+    private static Objective getSidebarObjective(Scoreboard scoreboard) {
+        Minecraft mc = Minecraft.getInstance();
+        if (mc.player != null) {
+            PlayerTeam playerTeam = scoreboard.getPlayersTeam(mc.player.getScoreboardName());
+            if (playerTeam != null) {
+                int colorId = playerTeam.getColor().getId();
+                if (colorId >= 0) {
+                    Objective teamObjective = scoreboard.getDisplayObjective(Scoreboard.DISPLAY_SLOT_TEAMS_SIDEBAR_START + colorId);
+                    if (teamObjective != null) {
+                        return teamObjective;
+                    }
+                }
+            }
+        }
+        return scoreboard.getDisplayObjective(Scoreboard.DISPLAY_SLOT_SIDEBAR);
+    }
+
+    /**
+     * 每个客户端tick结束时调用，把这一tick的数据包带来的文本合并提交
+     */
+    public void flush() {
+        batchQueue.flush();
+    }
+
+    /**
+     * 清空侧边栏备忘（断开连接时调用）
+     */
+    public void clear() {
+        lines.clear();
+        titleMemo.clear();
+        requests.clear();
+        batchQueue.clear();
+    }
+
+    private static boolean shouldTranslate(String text, boolean isTitle) {
+        if (!ScriptDetector.needsTranslation(text)) {
+            return false;
+        }
+
+        // 对于条目，跳过玩家名称（数字已由 ScriptDetector 跳过）
+        if (!isTitle) {
+            // 跳过玩家名称（通常长度较短且只包含字母数字下划线）
+            if (text.length() <= 16 && isNameLike(text)) {
+                return false;
+            }
+            // 跳过包含格式代码的短文本（可能是玩家名称）
+            if (text.contains("§") && text.length() <= 20) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isNameLike(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (!((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 侧边栏的一行：构造时的队伍、队伍前后缀和颜色（按引用比较），以及格式化后的原文和译文
+     */
+    private static final class SidebarLine {
+        private final Team team;
+        private final Component prefix;
+        private final Component suffix;
+        private final ChatFormatting color;
+        private final MutableComponent original;
+        private final String text;
+        private final boolean translatable;
+        private CacheNamespace namespace;
+        private MutableComponent translated;
+
+        private SidebarLine(Team team, MutableComponent original, String text, boolean translatable) {
+            this.team = team;
+            this.prefix = team instanceof PlayerTeam playerTeam ? playerTeam.getPlayerPrefix() : null;
+            this.suffix = team instanceof PlayerTeam playerTeam ? playerTeam.getPlayerSuffix() : null;
+            this.color = team != null ? team.getColor() : null;
+            this.original = original;
+            this.text = text;
+            this.translatable = translatable;
+        }
+
+        private boolean matches(Team currentTeam) {
+            if (currentTeam != team) {
+                return false;
+            }
+            if (team instanceof PlayerTeam playerTeam) {
+                return playerTeam.getPlayerPrefix() == prefix
+                        && playerTeam.getPlayerSuffix() == suffix
+                        && team.getColor() == color;
+            }
+            return team == null || team.getColor() == color;
+        }
+    }
+
+    /**
+     * 请求状态：请求时的命名空间，失败时间（请求中或已完成时为 0）
+     */
+    private record RequestState(CacheNamespace namespace, long failedAt) {
+    }
+}
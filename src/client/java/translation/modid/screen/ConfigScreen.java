@@ -411,6 +411,37 @@ public class ConfigScreen extends Screen {
                 .build());
         fieldY += 25;
         
+        // 导出翻译包按钮
+        this.addRenderableWidget(Button.builder(
+                Component.literal("导出翻译包"),
+                button -> {
+                    translation.modid.cache.TranslationCacheManager cacheManager = translation.modid.cache.TranslationCacheManager.getInstance();
+                    String fileName = cacheManager.getCurrentWorldName().replaceAll("[<>:\"/\\\\|?*]", "_")
+                            + translation.modid.cache.TranslationPack.FILE_EXTENSION;
+                    java.nio.file.Path file = translation.modid.cache.TranslationPackManager.getExportDir().resolve(fileName);
+                    try {
+                        int count = cacheManager.exportPack(file);
+                        if (this.minecraft != null && this.minecraft.player != null) {
+                            this.minecraft.player.sendSystemMessage(
+                                Component.literal("§a[翻译] 已导出 " + count + " 条译文到 " + file.getFileName())
+                            );
+                        }
+                    } catch (Exception e) {
+                        translation.modid.SimpleTranslation.LOGGER.error("导出翻译包失败", e);
+                        if (this.minecraft != null && this.minecraft.player != null) {
+                            this.minecraft.player.sendSystemMessage(
+                                Component.literal("§c[翻译] 导出翻译包失败: " + e.getMessage())
+                            );
+                        }
+                    }
+                })
+                .bounds(centerX - 100, fieldY, 200, 20)
+                .tooltip(net.minecraft.client.gui.components.Tooltip.create(
+                    Component.literal("§7将当前缓存导出为只读翻译包（config/simple-translation/export/）\n§7放入 packs 文件夹后可分享给其他玩家使用\n§7翻译包中的译文无需联网即可使用")
+                ))
+                .build());
+        fieldY += 25;
+        
         // 清空缓存按钮
         this.addRenderableWidget(Button.builder(
                 Component.literal("§c§l清空所有缓存"),
@@ -568,7 +599,7 @@ public class ConfigScreen extends Screen {
         if (mouseY >= scrollAreaTop && mouseY <= scrollAreaBottom) {
             // 估算内容高度（根据API类型不同，高度也不同）
             TranslationConfig config = TranslationConfig.getInstance();
-            int baseHeight = 685; // 增加高度以容纳缓存管理按钮和Title命令按钮
+            int baseHeight = 710; // 增加高度以容纳缓存管理按钮和Title命令按钮
             if ("baidu".equals(config.apiType)) {
                 baseHeight += 60;
             } else if ("baidu_llm".equals(config.apiType)) {
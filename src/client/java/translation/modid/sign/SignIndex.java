@@ -0,0 +1,144 @@
+package translation.modid.sign;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.entity.SignBlockEntity;
+import net.minecraft.world.level.chunk.LevelChunk;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 告示牌索引 - 按区块记录已加载的告示牌位置
+ *
+ * 由区块加载/卸载和方块实体加载/卸载事件维护，范围查询只访问与范围相交的区块中已知的告示牌，
+ * 不再逐个方块调用 getBlockEntity 扫描整个立方体。
+ */
+public class SignIndex {
+    private static SignIndex instance;
+
+    // 区块坐标（ChunkPos.toLong）-> 该区块内的告示牌位置
+    private final Map<Long, Set<BlockPos>> signsByChunk = new ConcurrentHashMap<>();
+
+    // 索引所属的世界；切换维度时旧世界的区块不一定逐个触发卸载事件，发现世界变化时整体清空
+    private WeakReference<Level> indexedLevel = new WeakReference<>(null);
+
+    public static SignIndex getInstance() {
+        if (instance == null) {
+            instance = new SignIndex();
+        }
+        return instance;
+    }
+
+    /**
+     * 区块加载：登记区块内所有告示牌
+     */
+    public void onChunkLoad(LevelChunk chunk) {
+        checkLevel(chunk.getLevel());
+        long key = chunk.getPos().toLong();
+        signsByChunk.remove(key);
+        for (BlockEntity blockEntity : chunk.getBlockEntities().values()) {
+            if (blockEntity instanceof SignBlockEntity) {
+                add(blockEntity.getBlockPos());
+            }
+        }
+    }
+
+    /**
+     * 区块卸载：移除区块内的所有告示牌
+     */
+    public void onChunkUnload(LevelChunk chunk) {
+        signsByChunk.remove(chunk.getPos().toLong());
+    }
+
+    /**
+     * 方块实体加载（放置告示牌或区块数据到达）
+     */
+    public void onBlockEntityLoad(BlockEntity blockEntity) {
+        if (blockEntity instanceof SignBlockEntity) {
+            checkLevel(blockEntity.getLevel());
+            add(blockEntity.getBlockPos());
+        }
+    }
+
+    /**
+     * 方块实体卸载（告示牌被破坏）
+     */
+    public void onBlockEntityUnload(BlockEntity blockEntity) {
+        if (blockEntity instanceof SignBlockEntity) {
+            BlockPos pos = blockEntity.getBlockPos();
+            long key = ChunkPos.asLong(SectionPos.blockToSectionCoord(pos.getX()), SectionPos.blockToSectionCoord(pos.getZ()));
+            Set<BlockPos> signs = signsByChunk.get(key);
+            if (signs != null) {
+                signs.remove(pos);
+            }
+        }
+    }
+
+    private void checkLevel(Level level) {
+        if (level != null && indexedLevel.get() != level) {
+            signsByChunk.clear();
+            indexedLevel = new WeakReference<>(level);
+        }
+    }
+
+    private void add(BlockPos pos) {
+        long key = ChunkPos.asLong(SectionPos.blockToSectionCoord(pos.getX()), SectionPos.blockToSectionCoord(pos.getZ()));
+        // 方块实体的位置是不可变的 BlockPos，可以直接作为键保存
+        signsByChunk.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(pos.immutable());
+    }
+
+    /**
+     * 查询以 center 为中心、边长为 2 * range + 1 的立方体内的告示牌位置
+     */
+    public List<BlockPos> findInRange(BlockPos center, int range) {
+        List<BlockPos> result = new ArrayList<>();
+        int minChunkX = SectionPos.blockToSectionCoord(center.getX() - range);
+        int maxChunkX = SectionPos.blockToSectionCoord(center.getX() + range);
+        int minChunkZ = SectionPos.blockToSectionCoord(center.getZ() - range);
+        int maxChunkZ = SectionPos.blockToSectionCoord(center.getZ() + range);
+
+        for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+            for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+                Set<BlockPos> signs = signsByChunk.get(ChunkPos.asLong(chunkX, chunkZ));
+                if (signs == null) {
+                    continue;
+                }
+                for (BlockPos pos : signs) {
+                    if (Math.abs(pos.getX() - center.getX()) <= range
+                            && Math.abs(pos.getY() - center.getY()) <= range
+                            && Math.abs(pos.getZ() - center.getZ()) <= range) {
+                        result.add(pos);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 已索引的告示牌总数
+     */
+    public int size() {
+        int total = 0;
+        for (Set<BlockPos> signs : signsByChunk.values()) {
+            total += signs.size();
+        }
+        return total;
+    }
+
+    /**
+     * 清空索引（切换世界或断开连接时调用）
+     */
+    public void clear() {
+        signsByChunk.clear();
+        indexedLevel = new WeakReference<>(null);
+    }
+}
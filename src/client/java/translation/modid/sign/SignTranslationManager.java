@@ -1,53 +1,110 @@
 package translation.modid.sign;
 
 import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.culling.Frustum;
 import net.minecraft.core.BlockPos;
 import net.minecraft.network.chat.Component;
 import net.minecraft.ChatFormatting;
 import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.level.Level;
-import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraft.world.level.block.entity.SignBlockEntity;
+import net.minecraft.world.level.block.entity.SignText;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.phys.AABB;
 import net.minecraft.world.phys.BlockHitResult;
 import net.minecraft.world.phys.HitResult;
 import net.minecraft.world.phys.Vec3;
 import translation.modid.SimpleTranslation;
+import translation.modid.cache.CacheNamespace;
+import translation.modid.cache.ContentHash;
 import translation.modid.cache.TranslationCacheManager;
 import translation.modid.cache.TranslationCacheManager.CacheType;
 import translation.modid.config.TranslationConfig;
+import translation.modid.mixin.client.SignBlockEntityAccessor;
+import translation.modid.sign.SignTranslationStore.StoredSign;
+import translation.modid.translator.ScriptDetector;
 import translation.modid.translator.TranslationManager;
 
+import java.lang.ref.WeakReference;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * 告示牌翻译管理器
+ *
+ * 译文按告示牌内容（正面各行文本）保存，位置只映射到内容键：
+ * 内容相同的告示牌共用一份译文、只请求一次翻译；告示牌文本被修改时位置立即映射到新内容，旧译文不会再显示。
+ * 启用持久化缓存时每个告示牌的译文按 维度 + 位置 + 内容哈希 保存到 SignTranslationStore，
+ * 重新加载到该告示牌且内容未变时直接恢复译文。
  */
 public class SignTranslationManager {
     private static SignTranslationManager instance;
     
-    // 存储告示牌位置 -> 翻译后的文本
-    private final Map<BlockPos, Component[]> translatedSigns = new ConcurrentHashMap<>();
+    // 告示牌位置 -> 内容键（不需要翻译的告示牌没有内容键）
+    private final Map<BlockPos, String> signContents = new ConcurrentHashMap<>();
     
-    // 存储告示牌位置 -> 最后访问时间
-    private final Map<BlockPos, Long> signAccessTime = new ConcurrentHashMap<>();
+    // 内容键 -> 翻译后的文本
+    private final Map<String, Component[]> translatedSigns = new ConcurrentHashMap<>();
     
-    // 正在翻译的告示牌
-    private final Set<BlockPos> translatingSigns = ConcurrentHashMap.newKeySet();
+    // 内容键 -> 最后访问时间（粗粒度，只在超过 ACCESS_TIME_GRANULARITY 时更新）
+    private final Map<String, Long> signAccessTime = new ConcurrentHashMap<>();
     
-    // 翻译失败的告示牌（位置 -> 失败时间），避免短时间内重复尝试
-    private final Map<BlockPos, Long> failedSigns = new ConcurrentHashMap<>();
+    // 粗粒度时钟，每tick更新一次；渲染线程每帧读取译文时不调用 System.currentTimeMillis
+    private volatile long coarseNow = System.currentTimeMillis();
     
-    // 上次翻译时间
-    private long lastTranslationTime = 0;
+    // 翻译结果与原文相同的内容，不再请求翻译
+    private final Set<String> unchangedSigns = ConcurrentHashMap.newKeySet();
+    
+    // 当前所在维度，用于持久化存储的键
+    private volatile String currentDimension;
+    
+    // signContents 中的位置所属的世界，切换维度、重生会替换 ClientLevel
+    private WeakReference<Level> trackedLevel = new WeakReference<>(null);
+    
+    // 正在翻译的内容 -> 所属批次编号，每个批次完成时只清除自己的条目
+    private final Map<String, Integer> translatingSigns = new ConcurrentHashMap<>();
+    
+    // 进行中的批次：批次编号 -> 批次中的告示牌
+    private final Map<Integer, List<SignData>> inFlightBatches = new ConcurrentHashMap<>();
+    private final AtomicInteger nextBatchId = new AtomicInteger();
+    
+    // 翻译失败的内容（内容键 -> 失败时间），避免短时间内重复尝试
+    private final Map<String, Long> failedSigns = new ConcurrentHashMap<>();
+    
+    // 待翻译队列：内容键 -> 排队的告示牌（只在客户端线程访问）
+    private final Map<String, QueuedSign> queue = new HashMap<>();
+    
+    // 当前一轮扫描的告示牌位置和进度，扫描分摊到多个tick完成
+    private List<BlockPos> scanCursor = Collections.emptyList();
+    private int scanIndex = 0;
+    private long lastScanPassTime = 0;
+    
+    // 潜行触发模式下请求的一轮扫描
+    private boolean scanRequested = false;
+    
+    // 准星所指的告示牌内容，优先翻译
+    private String priorityContent = null;
+    
+    // 最近一帧的视锥体，用于判断告示牌是否在视野内
+    private volatile Frustum frustum;
     
     // 上次清理缓存时间
     private long lastCleanupTime = 0;
     
-    // 翻译冷却时间（毫秒）- 增加到5秒，避免频繁触发
-    private static final long TRANSLATION_COOLDOWN = 5000;
+    // 每tick扫描和组批的时间预算（纳秒）
+    private static final long TICK_BUDGET_NANOS = 1_000_000L;
+    
+    // 两轮完整扫描之间的最短间隔
+    private static final long SCAN_PASS_INTERVAL = 1000;
+    
+    // 队列不足一批时，最早排队的告示牌最多等待的时间
+    private static final long BATCH_WAIT = 500;
+    
+    // 队列的最大长度
+    private static final int MAX_QUEUE_SIZE = 256;
     
     // 翻译失败后的冷却时间（60秒），避免重复尝试失败的告示牌
     private static final long FAILED_COOLDOWN = 60000;
@@ -58,12 +115,18 @@ public class SignTranslationManager {
     // 清理缓存间隔（30秒）
     private static final long CLEANUP_INTERVAL = 30000;
     
+    // 访问时间的更新粒度（10秒），远小于过期时间，避免每帧写入访问时间
+    private static final long ACCESS_TIME_GRANULARITY = 10000;
+    
     // 扫描范围
     private static final int SCAN_RANGE = 20;
     
     // 每批翻译的最大告示牌数量（增加到30保持更多上下文）
     private static final int MAX_SIGNS_PER_BATCH = 30;
     
+    // 同时进行的最大批次数量（大模型批量翻译）；逐个翻译的接口受频率限制，同时只进行一批
+    private static final int MAX_CONCURRENT_BATCHES = 3;
+    
     public static SignTranslationManager getInstance() {
         if (instance == null) {
             instance = new SignTranslationManager();
@@ -75,10 +138,18 @@ public class SignTranslationManager {
      * 获取告示牌的翻译文本
      */
     public Component[] getTranslatedText(BlockPos pos) {
-        Component[] translation = translatedSigns.get(pos);
+        String content = signContents.get(pos);
+        if (content == null) {
+            return null;
+        }
+        Component[] translation = translatedSigns.get(content);
         if (translation != null) {
-            // 更新访问时间
-            signAccessTime.put(pos, System.currentTimeMillis());
+            // 更新访问时间：只在记录的时间已经落后一个粒度时写入，大多数帧只有一次读取
+            long now = coarseNow;
+            Long lastAccess = signAccessTime.get(content);
+            if (lastAccess == null || now - lastAccess >= ACCESS_TIME_GRANULARITY) {
+                signAccessTime.put(content, now);
+            }
         }
         return translation;
     }
@@ -87,7 +158,197 @@ public class SignTranslationManager {
      * 检查是否有翻译
      */
     public boolean hasTranslation(BlockPos pos) {
-        return translatedSigns.containsKey(pos);
+        String content = signContents.get(pos);
+        return content != null && translatedSigns.containsKey(content);
+    }
+    
+    /**
+     * 告示牌加载或文本变化时调用：重新计算该位置的内容键
+     * 文本被修改后位置立即指向新内容，新内容已有译文（例如与其他告示牌相同）时直接显示
+     */
+    public void onSignTextChanged(SignBlockEntity sign) {
+        checkLevel(sign.getLevel());
+        BlockPos pos = sign.getBlockPos();
+        String content = contentKeyOf(((SignBlockEntityAccessor) sign).getRawFrontText());
+        if (content == null) {
+            signContents.remove(pos);
+        } else {
+            signContents.put(pos.immutable(), content);
+            restoreFromStore(sign, pos, content);
+        }
+    }
+    
+    /**
+     * 从持久化存储恢复告示牌的译文（内容哈希一致时）
+     * 所在区域尚未加载时在后台加载，加载完成后由 onRegionLoaded 恢复
+     */
+    private void restoreFromStore(SignBlockEntity sign, BlockPos pos, String content) {
+        if (!TranslationConfig.getInstance().persistentCache
+                || translatedSigns.containsKey(content) || unchangedSigns.contains(content)) {
+            return;
+        }
+        Level level = sign.getLevel() != null ? sign.getLevel() : Minecraft.getInstance().level;
+        if (level == null) {
+            return;
+        }
+        String dimension = dimensionOf(level);
+        currentDimension = dimension;
+        StoredSign stored = SignTranslationStore.getInstance().get(dimension, pos, this::onRegionLoaded);
+        if (stored != null) {
+            applyStored(content, stored);
+        }
+    }
+    
+    /**
+     * 区域文件加载完成（后台线程）：恢复区域内已加载告示牌的译文
+     */
+    private void onRegionLoaded(String dimension, Map<Long, StoredSign> signs) {
+        if (!dimension.equals(currentDimension)) {
+            return;
+        }
+        for (Map.Entry<Long, StoredSign> entry : signs.entrySet()) {
+            String content = signContents.get(BlockPos.of(entry.getKey()));
+            if (content != null && !translatedSigns.containsKey(content)) {
+                applyStored(content, entry.getValue());
+            }
+        }
+    }
+    
+    private void applyStored(String content, StoredSign stored) {
+        // 告示牌内容或语言设置变化后哈希不一致，保存的译文作废
+        if (!hashOf(content).equals(stored.getHash())) {
+            return;
+        }
+        if (stored.isUnchanged()) {
+            unchangedSigns.add(content);
+            return;
+        }
+        String[] lines = stored.getLines();
+        Component[] translatedLines = new Component[4];
+        for (int i = 0; i < 4; i++) {
+            translatedLines[i] = i < lines.length && !lines[i].isEmpty() ? Component.literal(lines[i]) : Component.empty();
+        }
+        translatedSigns.put(content, translatedLines);
+        signAccessTime.put(content, System.currentTimeMillis());
+    }
+    
+    /**
+     * 内容翻译完成：保存译文，并为具有该内容的每个告示牌写入持久化存储
+     * @param namespace 发起翻译请求时的命名空间
+     */
+    private void onContentTranslated(String content, Component[] translatedLines, CacheNamespace namespace) {
+        translatedSigns.put(content, translatedLines);
+        signAccessTime.put(content, System.currentTimeMillis());
+        String[] lines = new String[translatedLines.length];
+        for (int i = 0; i < translatedLines.length; i++) {
+            lines[i] = translatedLines[i].getString();
+        }
+        storePositions(content, lines, namespace);
+    }
+    
+    /**
+     * 翻译结果与原文相同：记录下来，以后不再请求翻译
+     */
+    private void onContentUnchanged(String content, CacheNamespace namespace) {
+        unchangedSigns.add(content);
+        storePositions(content, null, namespace);
+    }
+    
+    private void storePositions(String content, String[] lines, CacheNamespace namespace) {
+        String dimension = currentDimension;
+        if (!TranslationConfig.getInstance().persistentCache || dimension == null) {
+            return;
+        }
+        // 哈希按发起请求时的语言对计算，翻译期间切换了语言也不会把旧译文记在新语言下
+        String hash = hashOf(content, namespace);
+        SignTranslationStore store = SignTranslationStore.getInstance();
+        for (Map.Entry<BlockPos, String> entry : signContents.entrySet()) {
+            if (entry.getValue().equals(content)) {
+                store.put(dimension, entry.getKey(), hash, lines);
+            }
+        }
+    }
+    
+    private static String hashOf(String content) {
+        return hashOf(content, CacheNamespace.current());
+    }
+    
+    private static String hashOf(String content, CacheNamespace namespace) {
+        return ContentHash.of(content, namespace.getSourceLang(), namespace.getTargetLang());
+    }
+    
+    private static String dimensionOf(Level level) {
+        return level.dimension().location().toString();
+    }
+    
+    /**
+     * 告示牌卸载（被破坏或所在区块卸载）
+     */
+    public void onSignUnloaded(BlockPos pos) {
+        signContents.remove(pos);
+    }
+    
+    /**
+     * 区块卸载：移除区块内所有告示牌的内容键
+     */
+    public void onChunkUnloaded(LevelChunk chunk) {
+        for (BlockPos pos : chunk.getBlockEntitiesPos()) {
+            signContents.remove(pos);
+        }
+    }
+    
+    /**
+     * 世界变化时清空旧世界的位置映射和扫描进度（与 SignIndex 同步），旧维度同一坐标的内容键不会用到新维度的告示牌上
+     */
+    private void checkLevel(Level level) {
+        if (level != null && trackedLevel.get() != level) {
+            signContents.clear();
+            scanCursor = Collections.emptyList();
+            scanIndex = 0;
+            trackedLevel = new WeakReference<>(level);
+        }
+    }
+    
+    /**
+     * 断开连接时清空位置映射（译文按内容保存，不受影响）
+     */
+    public void clearPositions() {
+        signContents.clear();
+        trackedLevel = new WeakReference<>(null);
+        SignTranslationStore.getInstance().flush();
+    }
+    
+    /**
+     * 计算告示牌的内容键：正面各行文本按换行连接（去掉末尾的空行）
+     * @return 内容键，告示牌为空或没有需要翻译的行时返回 null
+     */
+    private String contentKeyOf(SignText text) {
+        String[] lines = new String[4];
+        int lastNonEmpty = -1;
+        boolean nothingToTranslate = true;
+        for (int i = 0; i < 4; i++) {
+            lines[i] = text.getMessage(i, false).getString();
+            if (!lines[i].isEmpty()) {
+                lastNonEmpty = i;
+                // 检查是否有需要翻译的行（已经是目标语言、数字、坐标等不需要翻译）
+                if (ScriptDetector.needsTranslation(lines[i])) {
+                    nothingToTranslate = false;
+                }
+            }
+        }
+        
+        // 只翻译包含需要翻译内容的告示牌
+        if (lastNonEmpty < 0 || nothingToTranslate) {
+            return null;
+        }
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i <= lastNonEmpty; i++) {
+            if (i > 0) {
+                content.append('\n');
+            }
+            content.append(lines[i]);
+        }
+        return content.toString();
     }
     
     /**
@@ -104,45 +365,65 @@ public class SignTranslationManager {
         lastCleanupTime = currentTime;
         
         // 移除过期的告示牌翻译
-        List<BlockPos> expiredPositions = new ArrayList<>();
-        for (Map.Entry<BlockPos, Long> entry : signAccessTime.entrySet()) {
+        List<String> expiredContents = new ArrayList<>();
+        for (Map.Entry<String, Long> entry : signAccessTime.entrySet()) {
             if (currentTime - entry.getValue() > CACHE_EXPIRE_TIME) {
-                expiredPositions.add(entry.getKey());
+                expiredContents.add(entry.getKey());
             }
         }
         
-        for (BlockPos pos : expiredPositions) {
-            translatedSigns.remove(pos);
-            signAccessTime.remove(pos);
+        for (String content : expiredContents) {
+            translatedSigns.remove(content);
+            signAccessTime.remove(content);
         }
         
         // 清理过期的失败记录
-        List<BlockPos> expiredFailures = new ArrayList<>();
-        for (Map.Entry<BlockPos, Long> entry : failedSigns.entrySet()) {
+        List<String> expiredFailures = new ArrayList<>();
+        for (Map.Entry<String, Long> entry : failedSigns.entrySet()) {
             if (currentTime - entry.getValue() > FAILED_COOLDOWN * 3) { // 失败记录保留时间更长（3倍冷却时间）
                 expiredFailures.add(entry.getKey());
             }
         }
         
-        for (BlockPos pos : expiredFailures) {
-            failedSigns.remove(pos);
+        for (String content : expiredFailures) {
+            failedSigns.remove(content);
         }
         
-        if (!expiredPositions.isEmpty() || !expiredFailures.isEmpty()) {
+        if (!expiredContents.isEmpty() || !expiredFailures.isEmpty()) {
             SimpleTranslation.LOGGER.info("清理了{}个过期的告示牌翻译，{}个失败记录", 
-                expiredPositions.size(), expiredFailures.size());
+                expiredContents.size(), expiredFailures.size());
         }
     }
     
     /**
-     * 自动翻译附近的告示牌
+     * 记录最近一帧的视锥体（世界渲染设置完成后调用）
+     */
+    public void setFrustum(Frustum frustum) {
+        this.frustum = frustum;
+    }
+    
+    /**
+     * 请求翻译附近的告示牌（潜行触发模式）：开始新一轮扫描
      */
     public void translateNearbySigns() {
+        scanRequested = true;
+        scanCursor = Collections.emptyList();
+        scanIndex = 0;
+        lastScanPassTime = 0;
+    }
+    
+    /**
+     * 每tick调用：在时间预算内推进扫描、维护队列并提交翻译
+     * @param continuous 是否持续扫描（定时模式）；否则只在请求扫描后扫描一轮
+     */
+    public void tick(boolean continuous) {
         TranslationConfig config = TranslationConfig.getInstance();
         if (!config.enabled || !config.translateSign) {
             return;
         }
         
+        coarseNow = System.currentTimeMillis();
+        
         Minecraft mc = Minecraft.getInstance();
         if (mc.player == null || mc.level == null) {
             return;
@@ -151,90 +432,226 @@ public class SignTranslationManager {
         // 清理过期缓存
         cleanupExpiredCache();
         
-        // 检查冷却时间
+        checkLevel(mc.level);
+        currentDimension = dimensionOf(mc.level);
+        SignTranslationStore.getInstance().flushIfDue(currentDimension, mc.player.blockPosition());
+        
+        long deadline = System.nanoTime() + TICK_BUDGET_NANOS;
         long currentTime = System.currentTimeMillis();
-        if (currentTime - lastTranslationTime < TRANSLATION_COOLDOWN) {
-            return;
-        }
         
-        // 检查是否有正在翻译的告示牌，如果有则等待
-        if (!translatingSigns.isEmpty()) {
-            return;
+        if (continuous || scanRequested) {
+            // 准星所指的告示牌插队
+            SignData looking = scanLookingAtSign(mc.level, mc.player);
+            if (looking != null && isEligible(looking.content, currentTime)) {
+                queue.computeIfAbsent(looking.content, k -> new QueuedSign(looking.pos, currentTime));
+                priorityContent = looking.content;
+            }
+            
+            // 根据配置选择扫描模式，"looking" 模式只翻译玩家面前的告示牌
+            if ("looking".equals(config.signTranslationMode)) {
+                scanRequested = false;
+            } else {
+                scanStep(mc.player, continuous, deadline, currentTime);
+            }
         }
         
-        lastTranslationTime = currentTime;
-        
-        // 根据配置选择扫描模式
-        List<SignData> signs;
-        if ("looking".equals(config.signTranslationMode)) {
-            // 只翻译玩家面前的告示牌
-            signs = scanLookingAtSign(mc.level, mc.player);
-        } else {
-            // 翻译范围内所有告示牌
-            signs = scanNearbySigns(mc.level, mc.player.position());
+        dispatch(mc, config, currentTime, deadline);
+    }
+    
+    /**
+     * 内容是否需要翻译：未翻译、不在翻译中、不在失败冷却期内
+     */
+    private boolean isEligible(String content, long currentTime) {
+        if (translatedSigns.containsKey(content) || translatingSigns.containsKey(content) || unchangedSigns.contains(content)) {
+            return false;
         }
-        
-        if (signs.isEmpty()) {
-            SimpleTranslation.LOGGER.debug("没有找到要翻译的告示牌");
-            return;
+        Long failTime = failedSigns.get(content);
+        return failTime == null || currentTime - failTime >= FAILED_COOLDOWN;
+    }
+    
+    /**
+     * 推进一轮扫描，把范围内需要翻译的告示牌加入队列
+     */
+    private void scanStep(Player player, boolean continuous, long deadline, long currentTime) {
+        if (scanIndex >= scanCursor.size()) {
+            if (!continuous && scanRequested && !scanCursor.isEmpty()) {
+                // 潜行触发的一轮扫描已完成
+                scanRequested = false;
+                scanCursor = Collections.emptyList();
+                return;
+            }
+            if (currentTime - lastScanPassTime < SCAN_PASS_INTERVAL) {
+                return;
+            }
+            lastScanPassTime = currentTime;
+            scanCursor = SignIndex.getInstance().findInRange(BlockPos.containing(player.position()), SCAN_RANGE);
+            scanIndex = 0;
+            if (scanCursor.isEmpty()) {
+                scanRequested = false;
+                return;
+            }
         }
         
-        // 过滤掉已经翻译过的告示牌、正在翻译的告示牌、以及最近翻译失败的告示牌（使用上面已定义的currentTime变量）
-        signs.removeIf(sign -> {
-            // 已翻译的告示牌
-            if (translatedSigns.containsKey(sign.pos)) {
-                return true;
-            }
-            // 正在翻译的告示牌
-            if (translatingSigns.contains(sign.pos)) {
-                return true;
+        Vec3 eyePos = player.getEyePosition(1.0F);
+        Vec3 lookVec = player.getLookAngle();
+        while (scanIndex < scanCursor.size()) {
+            BlockPos pos = scanCursor.get(scanIndex++);
+            String content = signContents.get(pos);
+            if (content != null && isEligible(content, currentTime)) {
+                QueuedSign queued = queue.get(content);
+                if (queued == null) {
+                    if (queue.size() < MAX_QUEUE_SIZE) {
+                        queue.put(content, new QueuedSign(pos, currentTime));
+                    }
+                } else if (!queued.pos.equals(pos) && score(pos, eyePos, lookVec) < score(queued.pos, eyePos, lookVec)) {
+                    // 内容相同的告示牌只排队一次，保留优先级最高的位置
+                    queued.pos = pos;
+                }
             }
-            // 最近翻译失败的告示牌（在冷却期内）
-            Long failTime = failedSigns.get(sign.pos);
-            if (failTime != null && currentTime - failTime < FAILED_COOLDOWN) {
-                return true;
+            // 每处理8个告示牌检查一次时间预算
+            if ((scanIndex & 7) == 0 && System.nanoTime() > deadline) {
+                break;
             }
-            return false;
-        });
+        }
+    }
+    
+    /**
+     * 计算告示牌的优先级分数（越小越优先）：距离越近、越接近视线方向越优先，视锥体外的告示牌排在后面
+     */
+    private double score(BlockPos pos, Vec3 eyePos, Vec3 lookVec) {
+        double dx = pos.getX() + 0.5 - eyePos.x;
+        double dy = pos.getY() + 0.5 - eyePos.y;
+        double dz = pos.getZ() + 0.5 - eyePos.z;
+        double distance = Math.sqrt(dx * dx + dy * dy + dz * dz);
+        // 视线方向与告示牌方向夹角的余弦（-1 到 1）
+        double cos = distance < 1.0E-3 ? 1.0 : (dx * lookVec.x + dy * lookVec.y + dz * lookVec.z) / distance;
+        double score = distance * (2.0 - cos);
+        Frustum currentFrustum = frustum;
+        if (currentFrustum != null && !currentFrustum.isVisible(new AABB(pos))) {
+            score *= 4.0;
+        }
+        return score;
+    }
+    
+    /**
+     * 队列中的告示牌足够一批、等待超时或有准星所指的告示牌时，按优先级组批并提交翻译
+     */
+    private void dispatch(Minecraft mc, TranslationConfig config, long currentTime, long deadline) {
+        // 移除已经不需要翻译的告示牌（例如内容相同的告示牌已翻译完成）
+        queue.entrySet().removeIf(entry -> !isEligible(entry.getKey(), currentTime));
+        if (priorityContent != null && !queue.containsKey(priorityContent)) {
+            priorityContent = null;
+        }
         
-        if (signs.isEmpty()) {
-            return;
+        boolean batchMode = "llm".equals(config.apiType) || "baidu_llm".equals(config.apiType);
+        int maxBatches = batchMode ? MAX_CONCURRENT_BATCHES : 1;
+        
+        // 有空闲的批次时持续组批，直到队列不足一批且未超时
+        while (!queue.isEmpty() && inFlightBatches.size() < maxBatches && System.nanoTime() <= deadline) {
+            long oldest = Long.MAX_VALUE;
+            for (QueuedSign queued : queue.values()) {
+                oldest = Math.min(oldest, queued.enqueuedAt);
+            }
+            boolean ready = priorityContent != null
+                    || queue.size() >= MAX_SIGNS_PER_BATCH
+                    || currentTime - oldest >= BATCH_WAIT;
+            if (!ready) {
+                return;
+            }
+            startBatch(mc, config, batchMode, takeBatch(mc));
         }
+    }
+    
+    /**
+     * 按当前视角重新计算优先级，从队列中取出优先级最高的一批告示牌
+     */
+    private List<SignData> takeBatch(Minecraft mc) {
+        Vec3 eyePos = mc.player.getEyePosition(1.0F);
+        Vec3 lookVec = mc.player.getLookAngle();
+        List<SignData> candidates = new ArrayList<>(queue.size());
+        for (Map.Entry<String, QueuedSign> entry : queue.entrySet()) {
+            QueuedSign queued = entry.getValue();
+            queued.score = entry.getKey().equals(priorityContent) ? -1.0 : score(queued.pos, eyePos, lookVec);
+            candidates.add(new SignData(queued.pos, entry.getKey()));
+        }
+        candidates.sort(Comparator.comparingDouble(sign -> queue.get(sign.content).score));
         
         // 限制每批翻译的数量
-        if (signs.size() > MAX_SIGNS_PER_BATCH) {
-            signs = signs.subList(0, MAX_SIGNS_PER_BATCH);
-            SimpleTranslation.LOGGER.info("告示牌数量过多，限制为{}个", MAX_SIGNS_PER_BATCH);
+        List<SignData> signs = new ArrayList<>(candidates.subList(0, Math.min(MAX_SIGNS_PER_BATCH, candidates.size())));
+        for (SignData sign : signs) {
+            queue.remove(sign.content);
         }
+        priorityContent = null;
+        return signs;
+    }
+    
+    /**
+     * 提交一批告示牌翻译
+     */
+    private void startBatch(Minecraft mc, TranslationConfig config, boolean batchMode, List<SignData> signs) {
+        int batchId = nextBatchId.incrementAndGet();
+        inFlightBatches.put(batchId, signs);
         
-        SimpleTranslation.LOGGER.info("发现{}个告示牌，开始翻译", signs.size());
+        SimpleTranslation.LOGGER.info("发现{}个告示牌，开始翻译（批次 {}，进行中 {} 批）", signs.size(), batchId, inFlightBatches.size());
         
-        // 显示开始翻译提示（使用上面已定义的mc变量）
+        // 显示开始翻译提示
         if (mc.player != null && config.showSignTranslationMessages) {
             Component message = Component.literal("§7[翻译] §e正在翻译 " + signs.size() + " 个告示牌...")
                     .withStyle(ChatFormatting.GRAY);
             mc.player.sendSystemMessage(message);
         }
         
-        // 标记所有告示牌为正在翻译
+        // 标记批次中的告示牌为正在翻译
         for (SignData sign : signs) {
-            translatingSigns.add(sign.pos);
+            translatingSigns.put(sign.content, batchId);
         }
         
         // 根据翻译API类型选择不同的翻译策略
-        if ("llm".equals(config.apiType) || "baidu_llm".equals(config.apiType)) {
+        if (batchMode) {
             // LLM和百度千帆大模型可以理解指令，使用批量翻译
-            translateSignsBatch(signs);
+            translateSignsBatch(batchId, signs);
         } else {
             // 百度翻译和免费翻译无法理解指令，逐个翻译
-            translateSignsIndividually(signs);
+            translateSignsIndividually(batchId, signs);
+        }
+    }
+    
+    /**
+     * 批次完成：只清除该批次自己的正在翻译标记
+     */
+    private void finishBatch(int batchId) {
+        List<SignData> signs = inFlightBatches.remove(batchId);
+        if (signs != null) {
+            for (SignData sign : signs) {
+                translatingSigns.remove(sign.content, batchId);
+            }
         }
     }
     
     /**
      * 批量翻译告示牌
      */
-    private void translateSignsBatch(List<SignData> signs) {
+    private void translateSignsBatch(int batchId, List<SignData> batchSigns) {
+        // 已有译文（内存缓存、翻译包、持久化缓存）的告示牌直接使用，只把其余的合并请求
+        TranslationManager translationManager = TranslationManager.getInstance();
+        CacheNamespace namespace = CacheNamespace.current();
+        List<SignData> signs = new ArrayList<>();
+        for (SignData sign : batchSigns) {
+            String cached = translationManager.getCachedTranslation(sign.content, CacheType.SIGN);
+            if (cached == null) {
+                signs.add(sign);
+            } else if (cached.equals(sign.content)) {
+                onContentUnchanged(sign.content, namespace);
+            } else {
+                onContentTranslated(sign.content, splitIntoLines(cached), namespace);
+            }
+        }
+        if (signs.isEmpty()) {
+            SimpleTranslation.LOGGER.info("{}个告示牌均已有缓存译文", batchSigns.size());
+            finishBatch(batchId);
+            return;
+        }
+        
         // 合并所有告示牌文本，使用更可靠的分隔符
         StringBuilder fullText = new StringBuilder();
         
@@ -249,28 +666,19 @@ public class SignTranslationManager {
                 fullText.append("###SIGN1###\n");
             }
             
-            // 合并4行文本
-            for (int line = 0; line < sign.lines.length; line++) {
-                String text = sign.lines[line];
-                if (!text.isEmpty()) {
-                    fullText.append(text);
-                    if (line < sign.lines.length - 1) {
-                        fullText.append("\n");
-                    }
-                }
-            }
+            fullText.append(sign.content);
         }
         
         if (fullText.length() == 0) {
             SimpleTranslation.LOGGER.info("所有告示牌都是空的");
-            translatingSigns.clear();
+            finishBatch(batchId);
             return;
         }
         
         SimpleTranslation.LOGGER.info("开始翻译{}个告示牌，总字符数: {}", signs.size(), fullText.length());
         
-        // 翻译整体文本（使用告示牌缓存类型）
-        TranslationManager.getInstance().translate(fullText.toString(), CacheType.SIGN)
+        // 翻译整体文本；拼接的批量文本不写入持久化缓存，拆分后按每个告示牌的内容分别保存
+        translationManager.translate(fullText.toString(), CacheType.SIGN, false)
             .thenAccept(translatedText -> {
                 Minecraft mc = Minecraft.getInstance();
                 
@@ -300,7 +708,6 @@ public class SignTranslationManager {
                         signContents.size(), signs.size());
                     
                     int idx = 0;
-                    long cacheTime = System.currentTimeMillis();
                     
                     for (String content : signContents) {
                         if (idx >= signs.size()) {
@@ -313,36 +720,13 @@ public class SignTranslationManager {
                         // 将翻译文本分成4行
                         Component[] translatedLines = splitIntoLines(content);
                         
-                        // 【临时测试】如果翻译结果还是英文，强制替换为中文测试
-                        if (content.equals("teardrop;\nIn my eye,")) {
-                            translatedLines = new Component[]{
-                                Component.literal("泪珠；"),
-                                Component.literal("在我眼中，"),
-                                Component.empty(),
-                                Component.empty()
-                            };
-                            SimpleTranslation.LOGGER.info("强制替换测试：teardrop -> 泪珠");
-                        } else if (content.equals("If you were a")) {
-                            translatedLines = new Component[]{
-                                Component.literal("如果你是"),
-                                Component.empty(),
-                                Component.empty(),
-                                Component.empty()
-                            };
-                            SimpleTranslation.LOGGER.info("强制替换测试：If you were a -> 如果你是");
-                        } else if (content.equals("I LOVE YOU")) {
-                            translatedLines = new Component[]{
-                                Component.literal("我爱你"),
-                                Component.empty(),
-                                Component.empty(),
-                                Component.empty()
-                            };
-                            SimpleTranslation.LOGGER.info("强制替换测试：I LOVE YOU -> 我爱你");
+                        translationManager.putTranslation(sign.content, content, CacheType.SIGN, namespace);
+                        if (content.equals(sign.content)) {
+                            onContentUnchanged(sign.content, namespace);
+                        } else {
+                            onContentTranslated(sign.content, translatedLines, namespace);
                         }
                         
-                        translatedSigns.put(sign.pos, translatedLines);
-                        signAccessTime.put(sign.pos, cacheTime);
-                        
                         SimpleTranslation.LOGGER.debug("告示牌{}({}) 翻译存储: {} -> {}", 
                             idx + 1, sign.pos, 
                             content.substring(0, Math.min(20, content.length())), 
@@ -352,6 +736,15 @@ public class SignTranslationManager {
                     
                     SimpleTranslation.LOGGER.info("成功分配 {} 个告示牌翻译", idx);
                     
+                    // 译文中缺少的告示牌按翻译失败处理，冷却期内不再重新组批
+                    if (idx < signs.size()) {
+                        SimpleTranslation.LOGGER.warn("译文缺少 {} 个告示牌的内容，标记为翻译失败", signs.size() - idx);
+                        long failTime = System.currentTimeMillis();
+                        for (int i = idx; i < signs.size(); i++) {
+                            failedSigns.put(signs.get(i).content, failTime);
+                        }
+                    }
+                    
                     // 显示翻译成功提示
                     TranslationConfig currentConfig = TranslationConfig.getInstance();
                     if (mc.player != null && idx > 0 && currentConfig.showSignTranslationMessages) {
@@ -375,12 +768,12 @@ public class SignTranslationManager {
                     // 标记所有告示牌为翻译失败，避免短时间内重复尝试
                     long failTime = System.currentTimeMillis();
                     for (SignData sign : signs) {
-                        failedSigns.put(sign.pos, failTime);
+                        failedSigns.put(sign.content, failTime);
                     }
                 }
                 
-                // 清除翻译标记
-                translatingSigns.clear();
+                // 清除本批次的翻译标记
+                finishBatch(batchId);
             })
             .exceptionally(e -> {
                 SimpleTranslation.LOGGER.error("翻译告示牌失败", e);
@@ -401,10 +794,10 @@ public class SignTranslationManager {
                 // 标记所有告示牌为翻译失败，避免短时间内重复尝试
                 long failTime = System.currentTimeMillis();
                 for (SignData sign : signs) {
-                    failedSigns.put(sign.pos, failTime);
+                    failedSigns.put(sign.content, failTime);
                 }
                 
-                translatingSigns.clear();
+                finishBatch(batchId);
                 return null;
             });
     }
@@ -412,7 +805,7 @@ public class SignTranslationManager {
     /**
      * 逐个翻译告示牌（用于百度翻译和免费翻译）
      */
-    private void translateSignsIndividually(List<SignData> signs) {
+    private void translateSignsIndividually(int batchId, List<SignData> signs) {
         long cacheTime = System.currentTimeMillis();
         
         SimpleTranslation.LOGGER.info("开始逐个翻译{}个告示牌（带延迟以避免频率限制）", signs.size());
@@ -429,7 +822,7 @@ public class SignTranslationManager {
             
             // 为每个告示牌添加延迟（200ms * index），避免同时发送大量请求
             CompletableFuture.runAsync(() -> {
-                translateSingleSign(sign, index, cacheTime, successCount, failCount, totalSigns);
+                translateSingleSign(batchId, sign, index, cacheTime, successCount, failCount, totalSigns);
             }, CompletableFuture.delayedExecutor(200L * i, TimeUnit.MILLISECONDS));
         }
     }
@@ -437,54 +830,55 @@ public class SignTranslationManager {
     /**
      * 翻译单个告示牌
      */
-    private void translateSingleSign(SignData sign, int index, long cacheTime, int[] successCount, int[] failCount, int totalSigns) {
+    private void translateSingleSign(int batchId, SignData sign, int index, long cacheTime, int[] successCount, int[] failCount, int totalSigns) {
         Minecraft mc = Minecraft.getInstance();
         
-        // 合并4行文本
-        StringBuilder signText = new StringBuilder();
-        for (int line = 0; line < sign.lines.length; line++) {
-            String text = sign.lines[line];
-            if (!text.isEmpty()) {
-                signText.append(text);
-                if (line < sign.lines.length - 1) {
-                    signText.append("\n");
-                }
-            }
-        }
+        String signText = sign.content;
         
-        if (signText.length() == 0) {
+        if (signText.isEmpty()) {
             SimpleTranslation.LOGGER.debug("告示牌{}为空，跳过", index + 1);
             synchronized (successCount) {
                 successCount[0]++;
+                translatingSigns.remove(sign.content, batchId);
+                if (successCount[0] + failCount[0] >= totalSigns) {
+                    finishBatch(batchId);
+                }
             }
             return;
         }
         
-        // 翻译这个告示牌（使用告示牌缓存类型）
-        TranslationManager.getInstance().translate(signText.toString(), CacheType.SIGN)
+        // 翻译这个告示牌（使用告示牌缓存类型），与 translate 内部使用同一命名空间
+        CacheNamespace namespace = CacheNamespace.current();
+        TranslationManager.getInstance().translate(signText, CacheType.SIGN)
             .thenAccept(translatedText -> {
                 synchronized (successCount) {
-                    if (translatedText != null && !translatedText.equals(signText.toString())) {
+                    // 单个告示牌完成后立即清除自己的标记
+                    translatingSigns.remove(sign.content, batchId);
+                    if (translatedText != null && !translatedText.equals(signText)) {
                         // 将翻译文本分成4行
                         Component[] translatedLines = splitIntoLines(translatedText);
                         
-                        translatedSigns.put(sign.pos, translatedLines);
-                        signAccessTime.put(sign.pos, cacheTime);
+                        onContentTranslated(sign.content, translatedLines, namespace);
                         
                         successCount[0]++;
                         SimpleTranslation.LOGGER.debug("告示牌{}({}) 翻译成功: {} -> {}", 
                             index + 1, sign.pos, 
                             signText.substring(0, Math.min(20, signText.length())), 
                             translatedLines[0].getString());
+                    } else if (translatedText != null) {
+                        // 译文与原文相同（例如专有名词），不需要再次翻译
+                        onContentUnchanged(sign.content, namespace);
+                        successCount[0]++;
+                        SimpleTranslation.LOGGER.debug("告示牌{}({}) 翻译无变化", index + 1, sign.pos);
                     } else {
                         failCount[0]++;
-                        SimpleTranslation.LOGGER.debug("告示牌{}({}) 翻译失败或无变化", index + 1, sign.pos);
-                        failedSigns.put(sign.pos, cacheTime);
+                        SimpleTranslation.LOGGER.debug("告示牌{}({}) 翻译失败", index + 1, sign.pos);
+                        failedSigns.put(sign.content, cacheTime);
                     }
                     
                     // 当所有告示牌翻译完成时显示结果
                     if (successCount[0] + failCount[0] >= totalSigns) {
-                        translatingSigns.clear();
+                        finishBatch(batchId);
                         
                         TranslationConfig currentConfig = TranslationConfig.getInstance();
                         if (mc.player != null && currentConfig.showSignTranslationMessages) {
@@ -507,12 +901,13 @@ public class SignTranslationManager {
             .exceptionally(e -> {
                 synchronized (successCount) {
                     failCount[0]++;
+                    translatingSigns.remove(sign.content, batchId);
                     SimpleTranslation.LOGGER.error("翻译告示牌{}({})失败", index + 1, sign.pos, e);
-                    failedSigns.put(sign.pos, cacheTime);
+                    failedSigns.put(sign.content, cacheTime);
                     
-                    // 当所有告示牌翻译完成时清除标记
+                    // 当所有告示牌翻译完成时结束批次
                     if (successCount[0] + failCount[0] >= totalSigns) {
-                        translatingSigns.clear();
+                        finishBatch(batchId);
                         
                         TranslationConfig currentConfig = TranslationConfig.getInstance();
                         if (mc.player != null && currentConfig.showSignTranslationMessages) {
@@ -528,11 +923,10 @@ public class SignTranslationManager {
     }
     
     /**
-     * 扫描玩家面前的告示牌（视线方向）
+     * 查找玩家面前的告示牌（视线方向）
+     * @return 准星所指的需要翻译的告示牌，没有时返回 null
      */
-    private List<SignData> scanLookingAtSign(Level level, Player player) {
-        List<SignData> signs = new ArrayList<>();
-        
+    private SignData scanLookingAtSign(Level level, Player player) {
         // 获取玩家视线方向
         Vec3 eyePos = player.getEyePosition(1.0F);
         Vec3 lookVec = player.getLookAngle();
@@ -549,99 +943,14 @@ public class SignTranslationManager {
         ));
         
         if (hitResult.getType() == HitResult.Type.BLOCK) {
-            BlockHitResult blockHit = (BlockHitResult) hitResult;
-            BlockPos hitPos = blockHit.getBlockPos();
-            BlockEntity blockEntity = level.getBlockEntity(hitPos);
-            
-            if (blockEntity instanceof SignBlockEntity signEntity) {
-                // 检查是否已经翻译过或正在翻译
-                if (!translatedSigns.containsKey(hitPos) && !translatingSigns.contains(hitPos)) {
-                    // 获取告示牌文本
-                    String[] lines = new String[4];
-                    boolean hasText = false;
-                    
-                    boolean allChinese = true;
-                    for (int i = 0; i < 4; i++) {
-                        Component line = signEntity.getFrontText().getMessage(i, false);
-                        String text = line.getString();
-                        lines[i] = text;
-                        if (!text.isEmpty()) {
-                            hasText = true;
-                            // 检查是否有非中文文本
-                            if (!containsChinese(text) || hasEnglish(text)) {
-                                allChinese = false;
-                            }
-                        }
-                    }
-                    
-                    // 只翻译包含非中文内容的告示牌
-                    if (hasText && !allChinese) {
-                        signs.add(new SignData(hitPos, lines));
-                        SimpleTranslation.LOGGER.info("检测到玩家面前的告示牌: {}", hitPos);
-                    }
-                }
+            BlockPos hitPos = ((BlockHitResult) hitResult).getBlockPos();
+            String content = signContents.get(hitPos);
+            if (content != null) {
+                return new SignData(hitPos, content);
             }
         }
         
-        return signs;
-    }
-    
-    /**
-     * 扫描附近的告示牌（20格范围）
-     */
-    private List<SignData> scanNearbySigns(Level level, Vec3 playerPos) {
-        List<SignData> signs = new ArrayList<>();
-        
-        BlockPos playerBlockPos = BlockPos.containing(playerPos);
-        
-        // 扫描范围内的方块
-        for (int x = -SCAN_RANGE; x <= SCAN_RANGE; x++) {
-            for (int y = -SCAN_RANGE; y <= SCAN_RANGE; y++) {
-                for (int z = -SCAN_RANGE; z <= SCAN_RANGE; z++) {
-                    BlockPos pos = playerBlockPos.offset(x, y, z);
-                    BlockEntity blockEntity = level.getBlockEntity(pos);
-                    
-                    if (blockEntity instanceof SignBlockEntity signEntity) {
-                        // 检查是否已经翻译过或正在翻译
-                        if (translatedSigns.containsKey(pos) || translatingSigns.contains(pos)) {
-                            continue;
-                        }
-                        
-                        // 获取告示牌文本
-                        String[] lines = new String[4];
-                        boolean hasText = false;
-                        boolean allChinese = true;
-                        
-                        for (int i = 0; i < 4; i++) {
-                            Component line = signEntity.getFrontText().getMessage(i, false);
-                            String text = line.getString();
-                            lines[i] = text;
-                            if (!text.isEmpty()) {
-                                hasText = true;
-                                // 检查是否有非中文文本
-                                if (!containsChinese(text) || hasEnglish(text)) {
-                                    allChinese = false;
-                                }
-                            }
-                        }
-                        
-                        // 只翻译包含非中文内容的告示牌
-                        if (hasText && !allChinese) {
-                            signs.add(new SignData(pos, lines));
-                        }
-                    }
-                }
-            }
-        }
-        
-        // 按照距离玩家的远近排序，保证翻译顺序符合阅读习惯
-        signs.sort((s1, s2) -> {
-            double dist1 = playerBlockPos.distSqr(s1.pos);
-            double dist2 = playerBlockPos.distSqr(s2.pos);
-            return Double.compare(dist1, dist2);
-        });
-        
-        return signs;
+        return null;
     }
     
     /**
@@ -677,18 +986,21 @@ public class SignTranslationManager {
     public void clearAll() {
         translatedSigns.clear();
         signAccessTime.clear();
+        unchangedSigns.clear();
         translatingSigns.clear();
+        inFlightBatches.clear();
         failedSigns.clear();
-        lastTranslationTime = 0;
+        queue.clear();
+        priorityContent = null;
         
         // 同时清除持久化缓存中的告示牌翻译，确保刷新后重新翻译并更新缓存
         TranslationConfig config = TranslationConfig.getInstance();
         if (config.persistentCache) {
             TranslationCacheManager cacheManager = TranslationCacheManager.getInstance();
             int cacheSize = cacheManager.size(CacheType.SIGN);
+            // 只删除告示牌分区的文件，其他分区不受影响
             cacheManager.clear(CacheType.SIGN);
-            // 立即保存到文件，确保清除操作被持久化
-            cacheManager.saveCache();
+            SignTranslationStore.getInstance().clear();
             SimpleTranslation.LOGGER.info("已清除所有告示牌翻译（内存缓存和持久化缓存），持久化缓存中清除了 {} 条记录", cacheSize);
         } else {
             SimpleTranslation.LOGGER.info("已清除所有告示牌翻译（内存缓存）");
@@ -696,45 +1008,29 @@ public class SignTranslationManager {
     }
     
     /**
-     * 检查文本是否包含中文字符
-     */
-    private boolean containsChinese(String text) {
-        if (text == null || text.isEmpty()) {
-            return false;
-        }
-        for (char c : text.toCharArray()) {
-            if (Character.UnicodeBlock.of(c) == Character.UnicodeBlock.CJK_UNIFIED_IDEOGRAPHS) {
-                return true;
-            }
-        }
-        return false;
-    }
-    
-    /**
-     * 检查文本是否包含英文字母
+     * 排队中的告示牌
      */
-    private boolean hasEnglish(String text) {
-        if (text == null || text.isEmpty()) {
-            return false;
-        }
-        for (char c : text.toCharArray()) {
-            if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')) {
-                return true;
-            }
+    private static class QueuedSign {
+        BlockPos pos; // 内容相同的告示牌中优先级最高的位置
+        final long enqueuedAt;
+        double score;
+        
+        QueuedSign(BlockPos pos, long enqueuedAt) {
+            this.pos = pos;
+            this.enqueuedAt = enqueuedAt;
         }
-        return false;
     }
     
     /**
      * 告示牌数据
      */
     private static class SignData {
-        final BlockPos pos;
-        final String[] lines;
+        final BlockPos pos; // 具有该内容的告示牌中优先级最高的位置
+        final String content;
         
-        SignData(BlockPos pos, String[] lines) {
+        SignData(BlockPos pos, String content) {
             this.pos = pos;
-            this.lines = lines;
+            this.content = content;
         }
     }
 }
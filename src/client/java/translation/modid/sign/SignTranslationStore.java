@@ -0,0 +1,292 @@
+package translation.modid.sign;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import translation.modid.SimpleTranslation;
+import translation.modid.cache.TranslationCacheManager;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+
+/**
+ * 告示牌译文持久化存储 - 按 维度 + 位置 + 内容哈希 保存每个告示牌的译文
+ *
+ * 文件按区域（32×32 区块）划分：cache/<世界名>/signs/<维度>/r.<x>.<z>.json，
+ * 区块加载时才异步读取所在区域的文件，重新回到去过的区域时告示牌可以立即显示译文而不需要请求翻译。
+ * 保存时卸载其他维度和远离玩家的区域，内存中只保留玩家附近的区域；
+ * 清空或切换世界后，还在进行的加载结果按代数丢弃，不会把旧记录恢复回来。
+ */
+public class SignTranslationStore {
+    private static SignTranslationStore instance;
+
+    private static final int FORMAT_VERSION = 1;
+    private static final long FLUSH_INTERVAL = 30000; // 有修改的区域文件的保存间隔
+    private static final int KEEP_RADIUS = 1; // 保留玩家所在区域周围几圈区域（一个区域 512 格，覆盖最大视距）
+
+    /**
+     * 保存的告示牌译文
+     */
+    public static class StoredSign {
+        String hash; // 内容哈希（原文 + 语言对）
+        String[] lines; // 译文各行，译文与原文相同时为 null
+        long time;
+
+        StoredSign(String hash, String[] lines) {
+            this.hash = hash;
+            this.lines = lines;
+            this.time = System.currentTimeMillis();
+        }
+
+        public String getHash() {
+            return hash;
+        }
+
+        public String[] getLines() {
+            return lines;
+        }
+
+        /**
+         * 翻译结果与原文相同（不需要翻译）
+         */
+        public boolean isUnchanged() {
+            return lines == null;
+        }
+    }
+
+    private static class RegionFile {
+        int version = FORMAT_VERSION;
+        Map<String, StoredSign> signs = new HashMap<>();
+    }
+
+    private static class Region {
+        final String dimension;
+        final int regionX;
+        final int regionZ;
+        final int generation; // 创建时的代数，与当前代数不同说明区域已被清空或世界已切换
+        final Map<Long, StoredSign> signs = new ConcurrentHashMap<>();
+        final AtomicBoolean loadStarted = new AtomicBoolean(false);
+        volatile boolean loaded = false;
+        volatile boolean dirty = false;
+
+        Region(String dimension, BlockPos pos, int generation) {
+            this.dimension = dimension;
+            this.regionX = regionCoord(pos.getX());
+            this.regionZ = regionCoord(pos.getZ());
+            this.generation = generation;
+        }
+    }
+
+    private final Gson gson = new GsonBuilder().create();
+    // 区域键（维度/r.x.z）-> 区域
+    private final Map<String, Region> regions = new ConcurrentHashMap<>();
+    // 每次清空区域时加一
+    private final AtomicInteger generation = new AtomicInteger();
+    private String worldName;
+    private long lastFlushTime = System.currentTimeMillis();
+
+    public static SignTranslationStore getInstance() {
+        if (instance == null) {
+            instance = new SignTranslationStore();
+        }
+        return instance;
+    }
+
+    private Path getSignsDir() {
+        String world = TranslationCacheManager.getInstance().getCurrentWorldName().replaceAll("[<>:\"/\\\\|?*]", "_");
+        return Paths.get(System.getProperty("user.dir"), "config", "simple-translation", "cache", world, "signs");
+    }
+
+    private static int regionCoord(int blockCoord) {
+        return SectionPos.blockToSectionCoord(blockCoord) >> 5;
+    }
+
+    private static String regionKey(String dimension, BlockPos pos) {
+        return dimension.replaceAll("[<>:\"/\\\\|?*]", "_") + "/r." + regionCoord(pos.getX()) + "." + regionCoord(pos.getZ());
+    }
+
+    /**
+     * 切换世界缓存后丢弃旧世界的区域（先保存修改）
+     */
+    private void checkWorld() {
+        String current = TranslationCacheManager.getInstance().getCurrentWorldName();
+        if (!current.equals(worldName)) {
+            if (worldName != null) {
+                flush();
+                generation.incrementAndGet();
+                regions.clear();
+            }
+            worldName = current;
+        }
+    }
+
+    /**
+     * 获取告示牌的保存记录
+     * 所在区域尚未加载时在后台加载，加载完成后通过 onLoaded 回调该区域的所有记录，本次返回 null
+     */
+    public StoredSign get(String dimension, BlockPos pos, BiConsumer<String, Map<Long, StoredSign>> onLoaded) {
+        checkWorld();
+        String key = regionKey(dimension, pos);
+        Region region = regions.computeIfAbsent(key, k -> new Region(dimension, pos, generation.get()));
+        if (!region.loaded) {
+            if (region.loadStarted.compareAndSet(false, true)) {
+                loadAsync(key, region, dimension, onLoaded);
+            }
+            return null;
+        }
+        return region.signs.get(pos.asLong());
+    }
+
+    private void loadAsync(String key, Region region, String dimension, BiConsumer<String, Map<Long, StoredSign>> onLoaded) {
+        Path file = getSignsDir().resolve(key + ".json");
+        CompletableFuture.runAsync(() -> {
+            if (Files.exists(file)) {
+                try (Reader reader = new FileReader(file.toFile())) {
+                    RegionFile regionFile = gson.fromJson(reader, RegionFile.class);
+                    if (regionFile != null && regionFile.signs != null) {
+                        for (Map.Entry<String, StoredSign> entry : regionFile.signs.entrySet()) {
+                            // 加载期间新写入的记录优先
+                            region.signs.putIfAbsent(Long.parseLong(entry.getKey()), entry.getValue());
+                        }
+                    }
+                } catch (Exception e) {
+                    SimpleTranslation.LOGGER.warn("加载告示牌译文失败: {} - {}", file, e.getMessage());
+                }
+            }
+            // 加载期间区域被清空、卸载或世界已切换时丢弃结果
+            if (region.generation != generation.get() || regions.get(key) != region) {
+                return;
+            }
+            region.loaded = true;
+            if (!region.signs.isEmpty()) {
+                onLoaded.accept(dimension, region.signs);
+            }
+        });
+    }
+
+    /**
+     * 保存告示牌的译文（翻译线程调用，与卸载区域互斥，写入的区域不会在标记修改前被卸载）
+     */
+    public synchronized void put(String dimension, BlockPos pos, String hash, String[] lines) {
+        checkWorld();
+        String key = regionKey(dimension, pos);
+        Region region = regions.computeIfAbsent(key, k -> {
+            // 新区域：没有文件时直接视为已加载
+            Region created = new Region(dimension, pos, generation.get());
+            if (!Files.exists(getSignsDir().resolve(k + ".json"))) {
+                created.loaded = true;
+                created.loadStarted.set(true);
+            }
+            return created;
+        });
+        region.signs.put(pos.asLong(), new StoredSign(hash, lines));
+        region.dirty = true;
+        // 有文件但还没有读取的区域立即在后台读取并合并（新写入的记录优先），
+        // 否则没有查询过的区域一直不能保存，也一直不能卸载
+        if (!region.loaded && region.loadStarted.compareAndSet(false, true)) {
+            loadAsync(key, region, dimension, (loadedDimension, signs) -> {
+            });
+        }
+    }
+
+    /**
+     * 按保存间隔写入有修改的区域文件，并卸载远离玩家的区域
+     * @param dimension 玩家所在维度
+     * @param center    玩家位置
+     */
+    public void flushIfDue(String dimension, BlockPos center) {
+        long now = System.currentTimeMillis();
+        if (now - lastFlushTime >= FLUSH_INTERVAL) {
+            lastFlushTime = now;
+            flush();
+            unloadDistant(dimension, center);
+        }
+    }
+
+    /**
+     * 卸载其他维度和 KEEP_RADIUS 以外的区域；还有修改没有保存的区域（加载完成前写入的）等下次保存后再卸载
+     */
+    private synchronized void unloadDistant(String dimension, BlockPos center) {
+        int centerX = regionCoord(center.getX());
+        int centerZ = regionCoord(center.getZ());
+        int count = 0;
+        Iterator<Region> iterator = regions.values().iterator();
+        while (iterator.hasNext()) {
+            Region region = iterator.next();
+            boolean nearby = region.dimension.equals(dimension)
+                    && Math.abs(region.regionX - centerX) <= KEEP_RADIUS && Math.abs(region.regionZ - centerZ) <= KEEP_RADIUS;
+            if (nearby || region.dirty) {
+                continue;
+            }
+            iterator.remove();
+            count++;
+        }
+        if (count > 0) {
+            SimpleTranslation.LOGGER.debug("已卸载 {} 个远离玩家的告示牌译文区域", count);
+        }
+    }
+
+    /**
+     * 立即写入所有有修改的区域文件
+     */
+    public synchronized void flush() {
+        Path dir = getSignsDir();
+        int count = 0;
+        for (Map.Entry<String, Region> entry : regions.entrySet()) {
+            Region region = entry.getValue();
+            // 未加载完成的区域等待下次保存，避免覆盖文件中尚未读取的记录
+            if (!region.dirty || !region.loaded) {
+                continue;
+            }
+            region.dirty = false;
+            Path file = dir.resolve(entry.getKey() + ".json");
+            try {
+                Files.createDirectories(file.getParent());
+                RegionFile regionFile = new RegionFile();
+                for (Map.Entry<Long, StoredSign> sign : region.signs.entrySet()) {
+                    regionFile.signs.put(Long.toString(sign.getKey()), sign.getValue());
+                }
+                try (Writer writer = new FileWriter(file.toFile())) {
+                    gson.toJson(regionFile, writer);
+                }
+                count++;
+            } catch (Exception e) {
+                region.dirty = true;
+                SimpleTranslation.LOGGER.error("保存告示牌译文失败: {}", file, e);
+            }
+        }
+        if (count > 0) {
+            SimpleTranslation.LOGGER.debug("已保存 {} 个区域的告示牌译文", count);
+        }
+    }
+
+    /**
+     * 清空当前世界的告示牌译文（内存和文件）
+     */
+    public synchronized void clear() {
+        generation.incrementAndGet();
+        regions.clear();
+        Path dir = getSignsDir();
+        if (!Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (Exception e) {
+            SimpleTranslation.LOGGER.error("删除告示牌译文失败", e);
+        }
+    }
+}
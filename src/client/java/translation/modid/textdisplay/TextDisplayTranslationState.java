@@ -0,0 +1,19 @@
+package translation.modid.textdisplay;
+
+import net.minecraft.network.chat.Component;
+import translation.modid.cache.CacheNamespace;
+
+/**
+ * 文字显示实体上的翻译状态（由 TextDisplayMixin 实现）
+ * 备忘上次翻译的原文组件、缓存命名空间和译文组件，随实体本身存放，实体被回收时一起释放
+ * 译文组件为 null 表示该原文不需要翻译或正在等待译文
+ */
+public interface TextDisplayTranslationState {
+    Component simpleTranslation$getMemoSource();
+
+    CacheNamespace simpleTranslation$getMemoNamespace();
+
+    Component simpleTranslation$getMemoTranslated();
+
+    void simpleTranslation$setMemo(Component source, CacheNamespace namespace, Component translated);
+}
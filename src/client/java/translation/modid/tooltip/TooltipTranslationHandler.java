@@ -3,15 +3,17 @@ package translation.modid.tooltip;
 import net.fabricmc.fabric.api.client.item.v1.ItemTooltipCallback;
 import net.minecraft.network.chat.Component;
 import net.minecraft.network.chat.MutableComponent;
+import translation.modid.cache.CacheNamespace;
+import translation.modid.cache.NamespacedTextCache;
 import translation.modid.config.TranslationConfig;
+import translation.modid.translator.ScriptDetector;
 import translation.modid.translator.TranslationManager;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.ConcurrentHashMap;
 
 public class TooltipTranslationHandler {
-    private static final ConcurrentHashMap<String, String> tooltipCache = new ConcurrentHashMap<>();
+    private static final NamespacedTextCache tooltipCache = new NamespacedTextCache();
 
     public static void register() {
         ItemTooltipCallback.EVENT.register((item, context, lines) -> {
@@ -33,7 +35,7 @@ public class TooltipTranslationHandler {
                 Component component = lines.get(i);
                 try {
                     String text = component.getString();
-                    if (text != null && !text.trim().isEmpty() && !containsChinese(text)) {
+                    if (ScriptDetector.needsTranslation(text)) {
                         toTranslateIndices.add(i);
                         toTranslateComponents.add(component);
                         if (combinedText.length() > 0) {
@@ -73,16 +75,12 @@ public class TooltipTranslationHandler {
     }
 
     private static void translateAsync(String text) {
-        TranslationManager.getInstance().translate(text)
+        CacheNamespace namespace = CacheNamespace.current();
+        TranslationManager.getInstance().translate(text, namespace)
                 .thenAccept(translated -> {
                     if (translated != null && !translated.isEmpty() && !translated.equals(text)) {
-                        tooltipCache.put(text, translated);
+                        tooltipCache.put(namespace, text, translated);
                     }
                 });
     }
-
-    private static boolean containsChinese(String text) {
-        if (text == null) return false;
-        return text.matches(".*[\\u4e00-\\u9fa5].*");
-    }
 }
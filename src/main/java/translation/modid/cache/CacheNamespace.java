@@ -0,0 +1,117 @@
+package translation.modid.cache;
+
+import translation.modid.config.TranslationConfig;
+
+import java.util.Objects;
+
+/**
+ * 缓存命名空间 - （源语言, 目标语言, 翻译接口/模型）
+ * 所有缓存层都按命名空间区分，切换语言或翻译接口时旧的译文保留在各自的命名空间中
+ */
+public final class CacheNamespace {
+    private static volatile CacheNamespace current;
+
+    private final String sourceLang;
+    private final String targetLang;
+    private final String backend;
+
+    // 构建时引用的原始配置值，用于快速判断配置是否发生变化（渲染路径上每帧都会调用 current()）
+    private final String rawSourceLang;
+    private final String rawTargetLang;
+    private final String rawApiType;
+    private final String rawModel;
+
+    private CacheNamespace(String rawSourceLang, String rawTargetLang, String rawApiType, String rawModel) {
+        this.rawSourceLang = rawSourceLang;
+        this.rawTargetLang = rawTargetLang;
+        this.rawApiType = rawApiType;
+        this.rawModel = rawModel;
+        this.sourceLang = normalize(rawSourceLang, "auto");
+        this.targetLang = normalize(rawTargetLang, "zh");
+        this.backend = backendOf(rawApiType, rawModel);
+    }
+
+    /**
+     * 获取当前配置对应的命名空间
+     */
+    public static CacheNamespace current() {
+        TranslationConfig config = TranslationConfig.getInstance();
+        String model = modelOf(config);
+        CacheNamespace namespace = current;
+        if (namespace == null
+                || namespace.rawSourceLang != config.sourceLang
+                || namespace.rawTargetLang != config.targetLang
+                || namespace.rawApiType != config.apiType
+                || namespace.rawModel != model) {
+            namespace = new CacheNamespace(config.sourceLang, config.targetLang, config.apiType, model);
+            current = namespace;
+        }
+        return namespace;
+    }
+
+    /**
+     * 翻译接口标识：接口类型，大模型接口附带模型名称（如 llm:deepseek-chat）
+     */
+    public static String backendOf(String apiType, String model) {
+        String type = normalize(apiType, "free");
+        if (model == null || model.trim().isEmpty()) {
+            return type;
+        }
+        return type + ":" + model.trim();
+    }
+
+    private static String modelOf(TranslationConfig config) {
+        if ("llm".equals(config.apiType)) {
+            return config.llmModel;
+        } else if ("baidu_llm".equals(config.apiType)) {
+            return config.baiduLLMModel;
+        }
+        return null;
+    }
+
+    private static String normalize(String value, String fallback) {
+        return value == null || value.trim().isEmpty() ? fallback : value.trim();
+    }
+
+    public String getSourceLang() {
+        return sourceLang;
+    }
+
+    public String getTargetLang() {
+        return targetLang;
+    }
+
+    public String getBackend() {
+        return backend;
+    }
+
+    /**
+     * 是否为相同的语言对（翻译接口可以不同）
+     */
+    public boolean hasSameLanguagePair(CacheNamespace other) {
+        return other != null && sourceLang.equals(other.sourceLang) && targetLang.equals(other.targetLang);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CacheNamespace other)) {
+            return false;
+        }
+        return sourceLang.equals(other.sourceLang)
+                && targetLang.equals(other.targetLang)
+                && backend.equals(other.backend);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(sourceLang, targetLang, backend);
+    }
+
+    @Override
+    public String toString() {
+        return sourceLang + ">" + targetLang + "@" + backend;
+    }
+}
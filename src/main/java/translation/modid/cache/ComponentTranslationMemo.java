@@ -0,0 +1,112 @@
+package translation.modid.cache;
+
+import net.minecraft.network.chat.Component;
+import net.minecraft.network.chat.MutableComponent;
+
+import java.util.Arrays;
+import java.util.function.Predicate;
+
+/**
+ * 文本组件备忘 - 按组件实例（引用）记住展开后的原文和构造好的译文组件
+ *
+ * 渲染钩子每帧都会拿到同一个组件实例（标题、boss名称、计分板标题等），
+ * 同一实例第二次出现时不再调用 getString() 展开组件树，缓存命中后也不再每帧构造新的译文组件。
+ * 使用固定大小的直接映射表（按 identityHashCode 取槽位），冲突时直接覆盖，查找不分配内存。
+ */
+public class ComponentTranslationMemo {
+    private final Entry[] slots;
+    private final int mask;
+    private final Predicate<String> filter;
+
+    /**
+     * @param capacity 槽位数量（向上取整为2的幂）
+     * @param filter   原文是否需要翻译，每个组件实例只判断一次
+     */
+    public ComponentTranslationMemo(int capacity, Predicate<String> filter) {
+        int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        this.slots = new Entry[size];
+        this.mask = size - 1;
+        this.filter = filter;
+    }
+
+    /**
+     * 获取组件对应的备忘条目，第一次出现时展开一次原文
+     */
+    public Entry get(Component source) {
+        int index = System.identityHashCode(source) & mask;
+        Entry entry = slots[index];
+        if (entry != null && entry.source == source) {
+            return entry;
+        }
+        String text = source.getString();
+        entry = new Entry(source, text, text != null && filter.test(text));
+        slots[index] = entry;
+        return entry;
+    }
+
+    /**
+     * 获取条目对应的译文组件
+     * 当前命名空间已经构造过译文时直接返回；否则查询缓存，命中时构造一次（保留原样式）并记住
+     * @return 译文组件，不需要翻译或还没有译文时返回 null
+     */
+    public Component translated(Entry entry, NamespacedTextCache cache) {
+        if (!entry.translatable) {
+            return null;
+        }
+        CacheNamespace namespace = CacheNamespace.current();
+        Result result = entry.result;
+        if (result != null && result.namespace == namespace) {
+            return result.component;
+        }
+        String translation = cache.get(entry.text);
+        if (translation == null) {
+            return null;
+        }
+        MutableComponent component = Component.literal(translation);
+        component.setStyle(entry.source.getStyle());
+        entry.result = new Result(namespace, component);
+        // 译文组件被写回显示位置后会再次经过钩子，提前记为不需要翻译
+        slots[System.identityHashCode(component) & mask] = new Entry(component, translation, false);
+        return component;
+    }
+
+    /**
+     * 清空全部备忘
+     */
+    public void clear() {
+        Arrays.fill(slots, null);
+    }
+
+    /**
+     * 备忘条目
+     */
+    public static final class Entry {
+        private final Component source;
+        private final String text;
+        private final boolean translatable;
+        private volatile Result result;
+
+        private Entry(Component source, String text, boolean translatable) {
+            this.source = source;
+            this.text = text;
+            this.translatable = translatable;
+        }
+
+        /**
+         * 展开后的原文
+         */
+        public String getText() {
+            return text;
+        }
+
+        /**
+         * 原文是否需要翻译（过滤条件的结果）
+         */
+        public boolean isTranslatable() {
+            return translatable;
+        }
+    }
+
+    private record Result(CacheNamespace namespace, Component component) {
+    }
+}
@@ -0,0 +1,67 @@
+package translation.modid.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * 内容哈希 - 根据（原文, 源语言, 目标语言）计算全局存储使用的内容寻址键
+ */
+public final class ContentHash {
+    // 截取 SHA-256 的前 16 字节（128 位），碰撞概率可以忽略
+    private static final int HASH_BYTES = 16;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private static final ThreadLocal<MessageDigest> DIGEST = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 不可用", e);
+        }
+    });
+
+    private ContentHash() {
+    }
+
+    /**
+     * 计算内容哈希
+     * @param text 原文
+     * @param sourceLang 源语言
+     * @param targetLang 目标语言
+     * @return 32 位十六进制字符串
+     */
+    public static String of(String text, String sourceLang, String targetLang) {
+        return toHex(digest(text, sourceLang, targetLang));
+    }
+
+    /**
+     * 计算内容哈希的原始字节（16 字节）
+     */
+    public static byte[] digest(String text, String sourceLang, String targetLang) {
+        MessageDigest md = DIGEST.get();
+        md.reset();
+        md.update(normalizeLang(sourceLang).getBytes(StandardCharsets.UTF_8));
+        md.update((byte) 0);
+        md.update(normalizeLang(targetLang).getBytes(StandardCharsets.UTF_8));
+        md.update((byte) 0);
+        md.update(text.getBytes(StandardCharsets.UTF_8));
+        byte[] full = md.digest();
+        byte[] result = new byte[HASH_BYTES];
+        System.arraycopy(full, 0, result, 0, HASH_BYTES);
+        return result;
+    }
+
+    private static String normalizeLang(String lang) {
+        return lang == null || lang.isEmpty() ? "auto" : lang.trim().toLowerCase();
+    }
+
+    private static String toHex(byte[] bytes) {
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            int v = bytes[i] & 0xFF;
+            chars[i * 2] = HEX[v >>> 4];
+            chars[i * 2 + 1] = HEX[v & 0x0F];
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,65 @@
+package translation.modid.cache;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 按命名空间区分的文本缓存（原文 -> 译文）
+ * 供各个界面钩子作为前置内存缓存使用，切换语言或翻译接口后自动使用对应命名空间的缓存
+ */
+public class NamespacedTextCache {
+    private final Map<CacheNamespace, Map<String, String>> namespaces = new ConcurrentHashMap<>();
+
+    /**
+     * 获取当前命名空间的缓存
+     */
+    public Map<String, String> current() {
+        return namespaces.computeIfAbsent(CacheNamespace.current(), k -> new ConcurrentHashMap<>());
+    }
+
+    public String get(String text) {
+        Map<String, String> cache = namespaces.get(CacheNamespace.current());
+        return cache != null ? cache.get(text) : null;
+    }
+
+    public String get(CacheNamespace namespace, String text) {
+        Map<String, String> cache = namespaces.get(namespace);
+        return cache != null ? cache.get(text) : null;
+    }
+
+    public void put(String text, String translation) {
+        current().put(text, translation);
+    }
+
+    /**
+     * 写入指定命名空间：异步翻译的结果应写入发起请求时的命名空间，而不是结果返回时的
+     */
+    public void put(CacheNamespace namespace, String text, String translation) {
+        namespaces.computeIfAbsent(namespace, k -> new ConcurrentHashMap<>()).put(text, translation);
+    }
+
+    public void remove(String text) {
+        Map<String, String> cache = namespaces.get(CacheNamespace.current());
+        if (cache != null) {
+            cache.remove(text);
+        }
+    }
+
+    /**
+     * 清空所有命名空间
+     */
+    public void clear() {
+        namespaces.clear();
+    }
+
+    /**
+     * 所有命名空间的条目总数
+     */
+    public int size() {
+        int total = 0;
+        for (Map<String, String> cache : namespaces.values()) {
+            total += cache.size();
+        }
+        return total;
+    }
+}
@@ -2,237 +2,712 @@ package translation.modid.cache;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
-import com.google.gson.reflect.TypeToken;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
 import translation.modid.SimpleTranslation;
+import translation.modid.config.TranslationConfig;
 
 import java.io.*;
-import java.lang.reflect.Type;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 翻译缓存管理器 - 支持持久化存储和分区管理
+ *
+ * 译文统一保存在全局去重存储中（按 原文+源语言+目标语言 的内容哈希寻址，所有世界和分区共享），
+ * 存储键为 内容哈希@翻译接口，不同语言对和翻译接口的译文可以同时保留，查找时可回退到同一语言对下其他接口的译文。
+ * 每个世界的每个分区单独保存为一个文件（cache/<世界名>/<分区>.json），只保存对全局存储的引用以及与全局译文不同的本世界覆盖译文；
+ * 各分区独立记录修改状态并按各自的间隔保存，启动时并行加载。
+ * 每个条目记录创建时间、最后命中时间、命中次数、翻译接口和语言对，保存时按容量预算淘汰低价值条目。
  */
 public class TranslationCacheManager {
     /**
      * 缓存类型枚举
      */
     public enum CacheType {
-        SIGN("告示牌翻译"),
-        SCOREBOARD("计分板翻译"),
-        ITEM("物品翻译"),
-        ENTITY("实体翻译"),
-        CHAT("聊天翻译"),
-        BOOK("书本翻译"),
-        OTHER("其他翻译");
-        
+        SIGN("告示牌翻译", 2.0, 30_000),
+        SCOREBOARD("计分板翻译", 2.0, 60_000),
+        ITEM("物品翻译", 4.0, 60_000),
+        ENTITY("实体翻译", 3.0, 60_000),
+        CHAT("聊天翻译", 0.5, 300_000),
+        BOOK("书本翻译", 3.0, 30_000),
+        OTHER("其他翻译", 1.0, 60_000);
+
         private final String displayName;
-        
-        CacheType(String displayName) {
+        // 淘汰时的保留权重：权重越高越不容易被淘汰（物品名称会反复出现，聊天消息大多只出现一次）
+        private final double retentionWeight;
+        // 分区有修改时的最短保存间隔（毫秒）：聊天翻译量大但价值低，保存得最不频繁
+        private final long saveInterval;
+
+        CacheType(String displayName, double retentionWeight, long saveInterval) {
             this.displayName = displayName;
+            this.retentionWeight = retentionWeight;
+            this.saveInterval = saveInterval;
         }
-        
+
         public String getDisplayName() {
             return displayName;
         }
+
+        public double getRetentionWeight() {
+            return retentionWeight;
+        }
+
+        public long getSaveInterval() {
+            return saveInterval;
+        }
+    }
+
+    /**
+     * 全局存储中的译文条目
+     */
+    static class StoreEntry {
+        String text;
+        String sourceLang;
+        String targetLang;
+        String translation;
+        String backend; // 产生该译文的翻译接口
+        long created; // 创建时间
+        long lastHit; // 最后命中时间
+        int hits; // 命中次数
+
+        StoreEntry(String text, String sourceLang, String targetLang, String translation, String backend) {
+            this.text = text;
+            this.sourceLang = sourceLang;
+            this.targetLang = targetLang;
+            this.translation = translation;
+            this.backend = backend;
+            this.created = System.currentTimeMillis();
+            this.lastHit = this.created;
+        }
+    }
+
+    /**
+     * 分区中对全局存储的引用；只有本世界译文与全局译文不同时才记录 text 和 translation
+     */
+    static class CacheRef {
+        String text;
+        String translation;
+        String backend; // 仅覆盖译文记录
+        long created; // 创建时间
+        long lastHit; // 最后命中时间
+        int hits; // 本世界中的命中次数
+
+        CacheRef() {
+            this.created = System.currentTimeMillis();
+            this.lastHit = this.created;
+        }
+
+        static CacheRef override(String text, String translation, String backend) {
+            CacheRef ref = new CacheRef();
+            ref.text = text;
+            ref.translation = translation;
+            ref.backend = backend;
+            return ref;
+        }
+
+        boolean isOverride() {
+            return translation != null;
+        }
+
+        void recordHit(long now) {
+            lastHit = now;
+            hits++;
+        }
+    }
+
+    /**
+     * 旧版（第2版）世界缓存文件结构：所有分区保存在同一个文件中，仅用于迁移
+     */
+    private static class WorldCacheFile {
+        int version;
+        Map<String, Map<String, CacheRef>> partitions = new HashMap<>();
     }
-    
+
+    /**
+     * 分区缓存文件结构：每个分区一个文件
+     */
+    private static class PartitionFile {
+        int version = FORMAT_VERSION;
+        Map<String, CacheRef> entries = new HashMap<>();
+    }
+
+    /**
+     * 全局存储文件结构
+     */
+    private static class StoreFile {
+        int version = FORMAT_VERSION;
+        Map<String, StoreEntry> entries = new HashMap<>();
+    }
+
+    private static final int FORMAT_VERSION = 3;
+    private static final String STORE_FILE_NAME = "translation-store.json";
+    private static final long STORE_SAVE_INTERVAL = 60_000; // 全局存储有修改时的最短保存间隔（毫秒）
+    private static final long DAY_MS = 24L * 60 * 60 * 1000;
+
     private static TranslationCacheManager instance;
-    // 分区缓存：类型 -> (原文 -> 译文)
-    private final Map<CacheType, Map<String, String>> categorizedCache = new ConcurrentHashMap<>();
+    // 全局去重存储：内容哈希@翻译接口 -> 译文条目
+    private final Map<String, StoreEntry> globalStore = new ConcurrentHashMap<>();
+    // 语言对索引：内容哈希 -> 任一翻译接口的存储键，用于跨接口回退
+    private final Map<String, String> pairIndex = new ConcurrentHashMap<>();
+    // 分区引用：类型 -> (内容哈希 -> 引用)
+    private final Map<CacheType, Map<String, CacheRef>> categorizedCache = new ConcurrentHashMap<>();
     private final Gson gson = new GsonBuilder().setPrettyPrinting().create();
     private String currentWorldName = "global"; // 当前世界名称
-    private Path cacheFilePath;
-    
+    private Path worldCacheDir; // 当前世界的分区文件目录：cache/<世界名>/
+    private Path legacyCacheFilePath; // 旧版单文件缓存：cache/<世界名>.json
+    private final Path storeFilePath;
+    private volatile boolean storeDirty = false; // 全局存储是否有未保存的修改
+    private volatile long lastStoreSave = System.currentTimeMillis();
+    // 有未保存修改的分区，以及各分区最后保存的时间
+    private final Set<CacheType> dirtyPartitions = ConcurrentHashMap.newKeySet();
+    private final Map<CacheType, Long> lastPartitionSave = new ConcurrentHashMap<>();
+
     private TranslationCacheManager() {
         // 初始化所有分区
+        long now = System.currentTimeMillis();
         for (CacheType type : CacheType.values()) {
             categorizedCache.put(type, new ConcurrentHashMap<>());
+            lastPartitionSave.put(type, now);
         }
-        
+
+        storeFilePath = Paths.get(getCacheDir(), STORE_FILE_NAME);
+
         // 初始化时使用全局缓存
         updateCacheFilePath("global");
-        
+
         // 迁移旧的缓存文件
         migrateOldCacheFiles();
-        
+
+        // 先加载全局存储，世界缓存中的引用依赖它解析
+        loadStore();
         loadCache();
     }
-    
+
+    private static String getCacheDir() {
+        // 使用 config/simple-translation/cache/ 子文件夹
+        return System.getProperty("user.dir") + File.separator + "config"
+                + File.separator + "simple-translation" + File.separator + "cache";
+    }
+
     /**
      * 更新缓存文件路径（根据世界名称）
      */
     private void updateCacheFilePath(String worldName) {
-        // 使用 config/simple-translation/cache/ 子文件夹
-        String configDir = System.getProperty("user.dir") + File.separator + "config" 
-                + File.separator + "simple-translation" + File.separator + "cache";
-        
         if (worldName == null || worldName.isEmpty()) {
             worldName = "global";
         }
         // 清理世界名称，移除不允许的文件名字符
         worldName = worldName.replaceAll("[<>:\"/\\\\|?*]", "_");
-        
-        // 简化文件名：直接使用世界名.json
-        cacheFilePath = Paths.get(configDir, worldName + ".json");
+
+        // 每个分区一个文件：cache/<世界名>/<分区>.json
+        worldCacheDir = Paths.get(getCacheDir(), worldName);
+        legacyCacheFilePath = Paths.get(getCacheDir(), worldName + ".json");
     }
-    
+
+    private Path partitionFilePath(CacheType type) {
+        return worldCacheDir.resolve(type.name() + ".json");
+    }
+
+    private void markDirty(CacheType type) {
+        dirtyPartitions.add(type);
+    }
+
     public static TranslationCacheManager getInstance() {
         if (instance == null) {
             instance = new TranslationCacheManager();
         }
         return instance;
     }
-    
+
     /**
-     * 从文件加载缓存
+     * 计算语言对下的内容哈希（与翻译接口无关）
      */
-    private void loadCache() {
+    private static String pairKeyOf(String text, CacheNamespace namespace) {
+        return ContentHash.of(text, namespace.getSourceLang(), namespace.getTargetLang());
+    }
+
+    /**
+     * 存储键：内容哈希@翻译接口
+     */
+    private static String storeKey(String pairKey, String backend) {
+        return pairKey + "@" + backend;
+    }
+
+    private static String pairKeyFromStoreKey(String key) {
+        int index = key.indexOf('@');
+        return index < 0 ? key : key.substring(0, index);
+    }
+
+    /**
+     * 重建语言对索引（批量删除条目后调用）
+     */
+    private void rebuildPairIndex() {
+        pairIndex.clear();
+        for (String key : globalStore.keySet()) {
+            pairIndex.putIfAbsent(pairKeyFromStoreKey(key), key);
+        }
+    }
+
+    /**
+     * 当前是否使用独立的世界缓存（独立世界的不同译文记录为覆盖，而不是修改全局存储）
+     */
+    private boolean isPerWorld() {
+        return !"global".equals(currentWorldName);
+    }
+
+    /**
+     * 从文件加载全局存储
+     */
+    private void loadStore() {
         try {
-            if (Files.exists(cacheFilePath)) {
-                try (Reader reader = new FileReader(cacheFilePath.toFile())) {
-                    // 尝试加载新格式（分区结构）
-                    Type newType = new TypeToken<HashMap<String, HashMap<String, String>>>(){}.getType();
-                    Map<String, Map<String, String>> loadedCache = gson.fromJson(reader, newType);
-                    
-                    if (loadedCache != null && !loadedCache.isEmpty()) {
-                        // 检查是否是新格式（包含分区键）
-                        boolean isNewFormat = false;
-                        for (String key : loadedCache.keySet()) {
-                            // 检查键是否是 CacheType 名称
-                            try {
-                                CacheType.valueOf(key);
-                                isNewFormat = true;
-                                break;
-                            } catch (IllegalArgumentException e) {
-                                // 不是 CacheType，说明是旧格式
-                                break;
-                            }
-                        }
-                        
-                        int totalCount = 0;
-                        if (isNewFormat) {
-                            // 新格式：直接加载分区数据
-                            for (Map.Entry<String, Map<String, String>> entry : loadedCache.entrySet()) {
-                                try {
-                                    CacheType cacheType = CacheType.valueOf(entry.getKey());
-                                    categorizedCache.get(cacheType).putAll(entry.getValue());
-                                    totalCount += entry.getValue().size();
-                                } catch (IllegalArgumentException e) {
-                                    SimpleTranslation.LOGGER.warn("未知的缓存类型: {}", entry.getKey());
+            if (Files.exists(storeFilePath)) {
+                try (Reader reader = new FileReader(storeFilePath.toFile())) {
+                    StoreFile storeFile = gson.fromJson(reader, StoreFile.class);
+                    long now = System.currentTimeMillis();
+                    if (storeFile != null && storeFile.entries != null) {
+                        for (Map.Entry<String, StoreEntry> entry : storeFile.entries.entrySet()) {
+                            StoreEntry value = entry.getValue();
+                            if (value != null && value.text != null && value.translation != null) {
+                                // 旧文件没有元数据，视为刚创建，避免被立即淘汰
+                                if (value.created == 0) {
+                                    value.created = now;
                                 }
-                            }
-                        } else {
-                            // 旧格式：迁移到 OTHER 分区
-                            SimpleTranslation.LOGGER.info("检测到旧格式缓存，正在迁移到分区结构...");
-                            for (Map.Entry<String, Map<String, String>> entry : loadedCache.entrySet()) {
-                                categorizedCache.get(CacheType.OTHER).put(entry.getKey(), 
-                                    entry.getValue().values().iterator().next());
-                                totalCount++;
+                                if (value.lastHit == 0) {
+                                    value.lastHit = value.created;
+                                }
+                                // 没有翻译接口后缀的旧键按条目记录的接口补全
+                                String key = entry.getKey();
+                                if (key.indexOf('@') < 0) {
+                                    key = storeKey(key, value.backend != null ? value.backend : "unknown");
+                                }
+                                globalStore.put(key, value);
+                                pairIndex.putIfAbsent(pairKeyFromStoreKey(key), key);
                             }
                         }
-                        
-                        SimpleTranslation.LOGGER.info("已加载 {} 条翻译缓存", totalCount);
                     }
+                    SimpleTranslation.LOGGER.info("已加载全局翻译存储 {} 条", globalStore.size());
                 }
             }
+        } catch (Exception e) {
+            SimpleTranslation.LOGGER.error("加载全局翻译存储失败", e);
+        }
+    }
+
+    /**
+     * 加载当前世界的缓存：各分区文件并行读取
+     * 只有旧版单文件缓存时先迁移为分区文件
+     */
+    private void loadCache() {
+        if (!Files.isDirectory(worldCacheDir) && Files.exists(legacyCacheFilePath)) {
+            migrateWorldFile();
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        for (CacheType type : CacheType.values()) {
+            futures.add(CompletableFuture.supplyAsync(() -> loadPartition(type)));
+        }
+        int totalCount = 0;
+        for (CompletableFuture<Integer> future : futures) {
+            totalCount += future.join();
+        }
+        SimpleTranslation.LOGGER.info("已加载 {} 条翻译缓存（耗时 {} ms）", totalCount, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 加载单个分区文件
+     * @return 加载的引用数
+     */
+    private int loadPartition(CacheType type) {
+        Path file = partitionFilePath(type);
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        try (Reader reader = new FileReader(file.toFile())) {
+            PartitionFile partitionFile = gson.fromJson(reader, PartitionFile.class);
+            if (partitionFile == null || partitionFile.entries == null) {
+                return 0;
+            }
+            return loadReferences(type, partitionFile.entries);
+        } catch (Exception e) {
+            SimpleTranslation.LOGGER.error("加载 {} 缓存失败: {}", type.getDisplayName(), file, e);
+            return 0;
+        }
+    }
+
+    /**
+     * 将旧版单文件缓存（第2版或更早的格式）迁移为分区文件，迁移成功后删除旧文件
+     */
+    private void migrateWorldFile() {
+        try (Reader reader = new FileReader(legacyCacheFilePath.toFile())) {
+            JsonElement root = JsonParser.parseReader(reader);
+            if (root == null || !root.isJsonObject()) {
+                return;
+            }
+            JsonObject object = root.getAsJsonObject();
+
+            if (object.has("version")) {
+                WorldCacheFile worldFile = gson.fromJson(object, WorldCacheFile.class);
+                int totalCount = 0;
+                if (worldFile != null && worldFile.partitions != null) {
+                    for (Map.Entry<String, Map<String, CacheRef>> entry : worldFile.partitions.entrySet()) {
+                        CacheType cacheType = parseCacheType(entry.getKey());
+                        if (cacheType == null || entry.getValue() == null) {
+                            SimpleTranslation.LOGGER.warn("未知的缓存类型: {}", entry.getKey());
+                            continue;
+                        }
+                        totalCount += loadReferences(cacheType, entry.getValue());
+                        markDirty(cacheType);
+                    }
+                }
+                SimpleTranslation.LOGGER.info("已加载 {} 条翻译缓存", totalCount);
+            } else {
+                // 旧格式：原文 -> 译文，导入全局存储并转换为引用
+                migrateLegacyCache(object);
+            }
         } catch (Exception e) {
             SimpleTranslation.LOGGER.error("加载翻译缓存失败", e);
+            return;
+        }
+
+        saveCache();
+        if (dirtyPartitions.isEmpty()) {
+            try {
+                Files.deleteIfExists(legacyCacheFilePath);
+                SimpleTranslation.LOGGER.info("已将旧版缓存文件迁移为分区文件: {}", worldCacheDir);
+            } catch (Exception e) {
+                SimpleTranslation.LOGGER.warn("删除旧版缓存文件失败: {}", legacyCacheFilePath);
+            }
         }
     }
-    
+
     /**
-     * 保存缓存到文件（分区结构）
+     * 加载分区引用
+     * @return 加载的引用数
      */
-    public void saveCache() {
-        try {
-            // 确保目录存在
-            Files.createDirectories(cacheFilePath.getParent());
-            
-            // 构建分区结构的数据
-            Map<String, Map<String, String>> saveData = new HashMap<>();
-            int totalCount = 0;
-            
-            for (Map.Entry<CacheType, Map<String, String>> entry : categorizedCache.entrySet()) {
-                if (!entry.getValue().isEmpty()) {
-                    saveData.put(entry.getKey().name(), new HashMap<>(entry.getValue()));
-                    totalCount += entry.getValue().size();
+    private int loadReferences(CacheType cacheType, Map<String, CacheRef> entries) {
+        int count = 0;
+        int danglingCount = 0;
+        long now = System.currentTimeMillis();
+        Map<String, CacheRef> refs = categorizedCache.get(cacheType);
+        for (Map.Entry<String, CacheRef> refEntry : entries.entrySet()) {
+            CacheRef ref = refEntry.getValue() != null ? refEntry.getValue() : new CacheRef();
+            String key = refEntry.getKey();
+            if (key.indexOf('@') < 0) {
+                // 没有翻译接口后缀的旧引用：覆盖译文按记录的接口补全，普通引用指向同语言对的存储条目
+                String indexed = pairIndex.get(key);
+                key = ref.isOverride() || indexed == null
+                        ? storeKey(key, ref.backend != null ? ref.backend : "unknown")
+                        : indexed;
+            }
+            // 全局存储中已不存在且没有本地覆盖的引用无法解析，直接丢弃
+            if (!ref.isOverride() && !globalStore.containsKey(key)) {
+                danglingCount++;
+                continue;
+            }
+            if (ref.created == 0) {
+                ref.created = now;
+            }
+            if (ref.lastHit == 0) {
+                ref.lastHit = ref.created;
+            }
+            refs.put(key, ref);
+            count++;
+        }
+
+        if (danglingCount > 0) {
+            SimpleTranslation.LOGGER.info("{} 丢弃了 {} 条无法解析的缓存引用", cacheType.getDisplayName(), danglingCount);
+        }
+        return count;
+    }
+
+    /**
+     * 迁移旧格式的世界缓存（分区结构或更早的扁平结构）
+     * 旧文件不记录语言，按当前配置的语言对导入
+     */
+    private void migrateLegacyCache(JsonObject object) {
+        SimpleTranslation.LOGGER.info("检测到旧格式缓存，正在迁移到全局存储...");
+        int totalCount = 0;
+
+        for (Map.Entry<String, JsonElement> entry : object.entrySet()) {
+            JsonElement value = entry.getValue();
+            CacheType cacheType = parseCacheType(entry.getKey());
+
+            if (cacheType != null && value.isJsonObject()) {
+                // 分区格式：类型 -> (原文 -> 译文)
+                for (Map.Entry<String, JsonElement> translation : value.getAsJsonObject().entrySet()) {
+                    if (translation.getValue().isJsonPrimitive()) {
+                        put(cacheType, translation.getKey(), translation.getValue().getAsString());
+                        totalCount++;
+                    }
+                }
+            } else if (value.isJsonPrimitive()) {
+                // 扁平格式：原文 -> 译文，迁移到 OTHER 分区
+                put(CacheType.OTHER, entry.getKey(), value.getAsString());
+                totalCount++;
+            } else if (value.isJsonObject() && !value.getAsJsonObject().entrySet().isEmpty()) {
+                // 更早的嵌套格式：原文 -> (任意键 -> 译文)
+                JsonElement first = value.getAsJsonObject().entrySet().iterator().next().getValue();
+                if (first.isJsonPrimitive()) {
+                    put(CacheType.OTHER, entry.getKey(), first.getAsString());
+                    totalCount++;
                 }
             }
-            
-            // 写入文件
-            try (Writer writer = new FileWriter(cacheFilePath.toFile())) {
-                gson.toJson(saveData, writer);
-                SimpleTranslation.LOGGER.info("已保存 {} 条翻译缓存到: {}", totalCount, cacheFilePath);
+        }
+
+        SimpleTranslation.LOGGER.info("已加载 {} 条翻译缓存", totalCount);
+    }
+
+    private static CacheType parseCacheType(String name) {
+        try {
+            return CacheType.valueOf(name);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 立即保存所有有修改的分区和全局存储（退出世界、断开连接时调用）
+     * 写入前先按配置的容量预算压缩缓存
+     */
+    public synchronized void saveCache() {
+        compact();
+        for (CacheType type : CacheType.values()) {
+            if (dirtyPartitions.contains(type)) {
+                savePartition(type);
+            }
+        }
+        if (storeDirty) {
+            saveStore();
+        }
+    }
+
+    /**
+     * 按各分区的保存间隔保存有修改的分区，未修改或未到保存时间的分区不会被重写
+     */
+    public synchronized void saveIfDue() {
+        TranslationConfig config = TranslationConfig.getInstance();
+        long now = System.currentTimeMillis();
+        for (CacheType type : CacheType.values()) {
+            if (dirtyPartitions.contains(type) && now - lastPartitionSave.get(type) >= type.getSaveInterval()) {
+                compactPartition(type, config.cacheMaxEntriesPerPartition, now);
+                savePartition(type);
+            }
+        }
+        if (storeDirty && now - lastStoreSave >= STORE_SAVE_INTERVAL) {
+            compactStore(config.cacheMaxTotalEntries, now);
+            saveStore();
+        }
+    }
+
+    /**
+     * 写入单个分区文件
+     */
+    private synchronized void savePartition(CacheType type) {
+        dirtyPartitions.remove(type);
+        lastPartitionSave.put(type, System.currentTimeMillis());
+        Map<String, CacheRef> typeCache = categorizedCache.get(type);
+        Path file = partitionFilePath(type);
+        try {
+            if (typeCache.isEmpty()) {
+                Files.deleteIfExists(file);
+                return;
+            }
+            Files.createDirectories(worldCacheDir);
+            PartitionFile partitionFile = new PartitionFile();
+            partitionFile.entries.putAll(typeCache);
+            try (Writer writer = new FileWriter(file.toFile())) {
+                gson.toJson(partitionFile, writer);
             }
+            SimpleTranslation.LOGGER.debug("已保存 {} 条 {} 缓存到: {}", partitionFile.entries.size(), type.getDisplayName(), file);
         } catch (Exception e) {
-            SimpleTranslation.LOGGER.error("保存翻译缓存失败", e);
+            dirtyPartitions.add(type);
+            SimpleTranslation.LOGGER.error("保存 {} 缓存失败", type.getDisplayName(), e);
         }
     }
-    
+
     /**
-     * 获取翻译（指定类型）
+     * 写入全局存储文件
+     */
+    private synchronized void saveStore() {
+        storeDirty = false;
+        lastStoreSave = System.currentTimeMillis();
+        try {
+            Files.createDirectories(storeFilePath.getParent());
+            StoreFile storeFile = new StoreFile();
+            storeFile.entries.putAll(globalStore);
+            try (Writer writer = new FileWriter(storeFilePath.toFile())) {
+                gson.toJson(storeFile, writer);
+            }
+            SimpleTranslation.LOGGER.info("已保存 {} 条全局翻译存储到: {}", storeFile.entries.size(), storeFilePath);
+        } catch (Exception e) {
+            storeDirty = true;
+            SimpleTranslation.LOGGER.error("保存全局翻译存储失败", e);
+        }
+    }
+
+    /**
+     * 获取翻译（指定类型，当前命名空间）
      */
     public String get(CacheType type, String text) {
-        Map<String, String> typeCache = categorizedCache.get(type);
-        return typeCache != null ? typeCache.get(text) : null;
+        return get(type, text, CacheNamespace.current());
     }
-    
+
+    /**
+     * 获取翻译（指定类型和命名空间）
+     * 当前分区未命中时回退到全局存储（其他分区或其他世界翻译过的相同文本），并在当前分区登记引用；
+     * 当前翻译接口没有译文时回退到同一语言对下其他翻译接口的译文
+     */
+    public String get(CacheType type, String text, CacheNamespace namespace) {
+        Map<String, CacheRef> typeCache = categorizedCache.get(type);
+        if (typeCache == null || text == null) {
+            return null;
+        }
+
+        String pairKey = pairKeyOf(text, namespace);
+        long now = System.currentTimeMillis();
+        String result = lookup(type, typeCache, storeKey(pairKey, namespace.getBackend()), now);
+        if (result == null) {
+            String fallbackKey = pairIndex.get(pairKey);
+            if (fallbackKey != null) {
+                result = lookup(type, typeCache, fallbackKey, now);
+            }
+        }
+        return result;
+    }
+
+    private String lookup(CacheType type, Map<String, CacheRef> typeCache, String key, long now) {
+        CacheRef ref = typeCache.get(key);
+        if (ref != null && ref.isOverride()) {
+            ref.recordHit(now);
+            return ref.translation;
+        }
+
+        StoreEntry stored = globalStore.get(key);
+        if (stored == null) {
+            if (ref != null) {
+                // 全局存储中的条目已被清除，引用失效
+                typeCache.remove(key);
+                markDirty(type);
+            }
+            return null;
+        }
+        if (ref == null) {
+            ref = new CacheRef();
+            CacheRef existing = typeCache.putIfAbsent(key, ref);
+            if (existing != null) {
+                ref = existing;
+            } else {
+                markDirty(type);
+            }
+        }
+        ref.recordHit(now);
+        stored.lastHit = now;
+        stored.hits++;
+        return stored.translation;
+    }
+
     /**
      * 获取翻译（默认类型：OTHER）
      */
     public String get(String text) {
-        // 向后兼容：先查找所有分区
-        for (Map<String, String> typeCache : categorizedCache.values()) {
-            String result = typeCache.get(text);
-            if (result != null) {
-                return result;
+        if (text == null) {
+            return null;
+        }
+
+        // 向后兼容：先查找所有分区中的本地覆盖，再查找全局存储
+        CacheNamespace namespace = CacheNamespace.current();
+        String pairKey = pairKeyOf(text, namespace);
+        String key = storeKey(pairKey, namespace.getBackend());
+        for (Map<String, CacheRef> typeCache : categorizedCache.values()) {
+            CacheRef ref = typeCache.get(key);
+            if (ref != null && ref.isOverride()) {
+                return ref.translation;
             }
         }
-        return null;
+        StoreEntry stored = globalStore.get(key);
+        if (stored == null) {
+            String fallbackKey = pairIndex.get(pairKey);
+            stored = fallbackKey != null ? globalStore.get(fallbackKey) : null;
+        }
+        return stored != null ? stored.translation : null;
     }
-    
+
     /**
-     * 添加翻译（指定类型）
+     * 添加翻译（指定类型，当前命名空间）
      */
     public void put(CacheType type, String text, String translation) {
-        Map<String, String> typeCache = categorizedCache.get(type);
-        if (typeCache != null) {
-            typeCache.put(text, translation);
+        put(type, text, translation, CacheNamespace.current());
+    }
+
+    /**
+     * 添加翻译（指定类型和命名空间）
+     */
+    public void put(CacheType type, String text, String translation, CacheNamespace namespace) {
+        Map<String, CacheRef> typeCache = categorizedCache.get(type);
+        if (typeCache == null || text == null || translation == null) {
+            return;
+        }
+
+        String pairKey = pairKeyOf(text, namespace);
+        String backend = namespace.getBackend();
+        String key = storeKey(pairKey, backend);
+        StoreEntry stored = globalStore.get(key);
+        if (stored == null) {
+            globalStore.put(key, new StoreEntry(text, namespace.getSourceLang(), namespace.getTargetLang(), translation, backend));
+            pairIndex.putIfAbsent(pairKey, key);
+            storeDirty = true;
+            typeCache.put(key, new CacheRef());
+            markDirty(type);
+        } else if (stored.translation.equals(translation)) {
+            if (typeCache.putIfAbsent(key, new CacheRef()) == null) {
+                markDirty(type);
+            }
+        } else if (isPerWorld()) {
+            // 独立世界缓存：不影响其他世界，记录为本世界的覆盖译文
+            typeCache.put(key, CacheRef.override(text, translation, backend));
+            markDirty(type);
+        } else {
+            globalStore.put(key, new StoreEntry(text, stored.sourceLang, stored.targetLang, translation, backend));
+            storeDirty = true;
+            typeCache.put(key, new CacheRef());
+            markDirty(type);
         }
     }
-    
+
     /**
      * 添加翻译（默认类型：OTHER）
      */
     public void put(String text, String translation) {
         put(CacheType.OTHER, text, translation);
     }
-    
+
     /**
      * 检查是否包含翻译（指定类型）
      */
     public boolean contains(CacheType type, String text) {
-        Map<String, String> typeCache = categorizedCache.get(type);
-        return typeCache != null && typeCache.containsKey(text);
+        return get(type, text) != null;
     }
-    
+
     /**
      * 检查是否包含翻译（查找所有分区）
      */
     public boolean contains(String text) {
-        for (Map<String, String> typeCache : categorizedCache.values()) {
-            if (typeCache.containsKey(text)) {
-                return true;
-            }
-        }
-        return false;
+        return get(text) != null;
     }
-    
+
     /**
      * 反向查找：通过译文查找原文（指定类型）
      * @param translatedText 译文
@@ -243,22 +718,15 @@ public class TranslationCacheManager {
         if (translatedText == null || translatedText.isEmpty()) {
             return null;
         }
-        
-        Map<String, String> typeCache = categorizedCache.get(type);
+
+        Map<String, CacheRef> typeCache = categorizedCache.get(type);
         if (typeCache == null) {
             return null;
         }
-        
-        // 遍历缓存，查找值匹配的键
-        for (Map.Entry<String, String> entry : typeCache.entrySet()) {
-            if (translatedText.equals(entry.getValue())) {
-                return entry.getKey();
-            }
-        }
-        
-        return null;
+
+        return findOriginalText(typeCache, translatedText);
     }
-    
+
     /**
      * 反向查找：通过译文查找原文（查找所有分区）
      * @param translatedText 译文
@@ -268,133 +736,301 @@ public class TranslationCacheManager {
         if (translatedText == null || translatedText.isEmpty()) {
             return null;
         }
-        
+
         // 遍历所有分区，查找值匹配的键
-        for (Map<String, String> typeCache : categorizedCache.values()) {
-            for (Map.Entry<String, String> entry : typeCache.entrySet()) {
-                if (translatedText.equals(entry.getValue())) {
-                    return entry.getKey();
+        for (Map<String, CacheRef> typeCache : categorizedCache.values()) {
+            String original = findOriginalText(typeCache, translatedText);
+            if (original != null) {
+                return original;
+            }
+        }
+
+        return null;
+    }
+
+    private String findOriginalText(Map<String, CacheRef> typeCache, String translatedText) {
+        for (Map.Entry<String, CacheRef> entry : typeCache.entrySet()) {
+            CacheRef ref = entry.getValue();
+            if (ref.isOverride()) {
+                if (translatedText.equals(ref.translation)) {
+                    return ref.text;
                 }
+                continue;
+            }
+            StoreEntry stored = globalStore.get(entry.getKey());
+            if (stored != null && translatedText.equals(stored.translation)) {
+                return stored.text;
             }
         }
-        
         return null;
     }
-    
+
     /**
-     * 清空所有缓存
+     * 清空所有缓存（包括全局存储）
      */
-    public void clearAll() {
-        for (Map<String, String> typeCache : categorizedCache.values()) {
+    public synchronized void clearAll() {
+        for (Map<String, CacheRef> typeCache : categorizedCache.values()) {
             typeCache.clear();
         }
+        globalStore.clear();
+        pairIndex.clear();
+        storeDirty = false;
+        dirtyPartitions.clear();
         // 删除缓存文件
         try {
-            if (Files.exists(cacheFilePath)) {
-                Files.delete(cacheFilePath);
-                SimpleTranslation.LOGGER.info("已清空翻译缓存并删除缓存文件");
+            Files.deleteIfExists(storeFilePath);
+            for (CacheType type : CacheType.values()) {
+                Files.deleteIfExists(partitionFilePath(type));
             }
+            Files.deleteIfExists(worldCacheDir);
+            SimpleTranslation.LOGGER.info("已清空翻译缓存并删除缓存文件");
         } catch (Exception e) {
             SimpleTranslation.LOGGER.error("删除缓存文件失败", e);
         }
     }
-    
+
     /**
-     * 清空指定类型的缓存
+     * 清空指定类型的缓存，只删除该分区的引用和文件
+     * 全局存储中的条目可能仍被其他世界（未加载）的分区引用，不在这里删除，交给压缩和淘汰处理
      */
-    public void clear(CacheType type) {
-        Map<String, String> typeCache = categorizedCache.get(type);
+    public synchronized void clear(CacheType type) {
+        Map<String, CacheRef> typeCache = categorizedCache.get(type);
         if (typeCache != null) {
             int count = typeCache.size();
             typeCache.clear();
+            dirtyPartitions.remove(type);
+            try {
+                Files.deleteIfExists(partitionFilePath(type));
+            } catch (Exception e) {
+                SimpleTranslation.LOGGER.error("删除 {} 缓存文件失败", type.getDisplayName(), e);
+            }
             SimpleTranslation.LOGGER.info("已清空 {} 条 {} 缓存", count, type.getDisplayName());
         }
     }
-    
+
     /**
      * 获取缓存大小（所有分区总和）
      */
     public int size() {
         int total = 0;
-        for (Map<String, String> typeCache : categorizedCache.values()) {
+        for (Map<String, CacheRef> typeCache : categorizedCache.values()) {
             total += typeCache.size();
         }
         return total;
     }
-    
+
     /**
      * 获取指定类型的缓存大小
      */
     public int size(CacheType type) {
-        Map<String, String> typeCache = categorizedCache.get(type);
+        Map<String, CacheRef> typeCache = categorizedCache.get(type);
         return typeCache != null ? typeCache.size() : 0;
     }
-    
+
+    /**
+     * 获取全局存储的条目数量
+     */
+    public int storeSize() {
+        return globalStore.size();
+    }
+
     /**
      * 获取内存缓存（用于临时存储）- 向后兼容
      */
     @Deprecated
     public Map<String, String> getMemoryCache() {
         // 返回 OTHER 类型的缓存
-        return categorizedCache.get(CacheType.OTHER);
+        return getCacheByType(CacheType.OTHER);
     }
-    
+
     /**
-     * 获取指定类型的缓存
+     * 获取指定类型的缓存（原文 -> 译文 的只读快照）
      */
     public Map<String, String> getCacheByType(CacheType type) {
-        return categorizedCache.get(type);
+        Map<String, String> snapshot = new HashMap<>();
+        Map<String, CacheRef> typeCache = categorizedCache.get(type);
+        if (typeCache == null) {
+            return snapshot;
+        }
+        for (Map.Entry<String, CacheRef> entry : typeCache.entrySet()) {
+            CacheRef ref = entry.getValue();
+            if (ref.isOverride()) {
+                snapshot.put(ref.text, ref.translation);
+            } else {
+                StoreEntry stored = globalStore.get(entry.getKey());
+                if (stored != null) {
+                    snapshot.put(stored.text, stored.translation);
+                }
+            }
+        }
+        return snapshot;
     }
-    
+
     /**
      * 获取所有分区的缓存统计信息
      */
     public Map<CacheType, Integer> getCacheStats() {
         Map<CacheType, Integer> stats = new HashMap<>();
-        for (Map.Entry<CacheType, Map<String, String>> entry : categorizedCache.entrySet()) {
+        for (Map.Entry<CacheType, Map<String, CacheRef>> entry : categorizedCache.entrySet()) {
             stats.put(entry.getKey(), entry.getValue().size());
         }
         return stats;
     }
-    
+
     /**
      * 切换到指定世界的缓存
+     * 全局存储保持常驻，只重新加载新世界的分区引用
      */
     public void switchWorld(String worldName) {
         if (worldName == null || worldName.isEmpty()) {
             worldName = "global";
         }
-        
+
         // 如果世界名称没变，不需要切换
         if (worldName.equals(currentWorldName)) {
             return;
         }
-        
+
         // 保存当前世界的缓存
         saveCache();
-        
-        // 清空内存缓存（所有分区）
-        for (Map<String, String> typeCache : categorizedCache.values()) {
+
+        // 清空分区引用（全局存储保留）
+        for (Map<String, CacheRef> typeCache : categorizedCache.values()) {
             typeCache.clear();
         }
-        
+        dirtyPartitions.clear();
+
         // 更新当前世界名称和文件路径
         currentWorldName = worldName;
         updateCacheFilePath(worldName);
-        
+
         // 加载新世界的缓存
         loadCache();
-        
-        SimpleTranslation.LOGGER.info("已切换到世界 [{}] 的翻译缓存，缓存文件: {}", worldName, cacheFilePath);
+
+        SimpleTranslation.LOGGER.info("已切换到世界 [{}] 的翻译缓存，缓存目录: {}", worldName, worldCacheDir);
+    }
+
+    /**
+     * 按容量预算压缩缓存：先淘汰超出分区预算的引用，再淘汰超出总预算的全局存储条目
+     * 价值低的条目优先淘汰（低权重分区、命中少、长时间未命中），例如一次性的聊天消息先于物品名称被淘汰
+     */
+    public synchronized void compact() {
+        TranslationConfig config = TranslationConfig.getInstance();
+        long now = System.currentTimeMillis();
+        int evictedRefs = 0;
+        for (CacheType type : CacheType.values()) {
+            evictedRefs += compactPartition(type, config.cacheMaxEntriesPerPartition, now);
+        }
+        int evictedEntries = compactStore(config.cacheMaxTotalEntries, now);
+
+        if (evictedRefs > 0 || evictedEntries > 0) {
+            SimpleTranslation.LOGGER.info("缓存压缩：淘汰了 {} 条分区引用，{} 条全局存储条目", evictedRefs, evictedEntries);
+        }
     }
-    
+
+    /**
+     * 淘汰超出分区预算的引用
+     * @return 淘汰的引用数
+     */
+    private synchronized int compactPartition(CacheType type, int maxEntries, long now) {
+        Map<String, CacheRef> typeCache = categorizedCache.get(type);
+        int excess = typeCache.size() - maxEntries;
+        if (maxEntries <= 0 || excess <= 0) {
+            return 0;
+        }
+        double weight = type.getRetentionWeight();
+        List<Map.Entry<String, CacheRef>> candidates = new ArrayList<>(typeCache.entrySet());
+        candidates.sort(Comparator.comparingDouble(
+                e -> retentionScore(weight, e.getValue().hits, e.getValue().lastHit, now)));
+        for (int i = 0; i < excess; i++) {
+            typeCache.remove(candidates.get(i).getKey());
+        }
+        markDirty(type);
+        return excess;
+    }
+
+    /**
+     * 淘汰超出总预算的全局存储条目
+     * @return 淘汰的条目数
+     */
+    private synchronized int compactStore(int maxEntries, long now) {
+        int storeExcess = globalStore.size() - maxEntries;
+        if (maxEntries <= 0 || storeExcess <= 0) {
+            return 0;
+        }
+        // 当前世界仍在引用的条目按引用分区的最高权重计算，未被引用的条目按默认权重计算
+        Map<String, Double> weights = new HashMap<>();
+        for (Map.Entry<CacheType, Map<String, CacheRef>> entry : categorizedCache.entrySet()) {
+            double weight = entry.getKey().getRetentionWeight();
+            for (String key : entry.getValue().keySet()) {
+                weights.merge(key, weight, Math::max);
+            }
+        }
+        List<Map.Entry<String, StoreEntry>> candidates = new ArrayList<>(globalStore.entrySet());
+        candidates.sort(Comparator.comparingDouble(e -> retentionScore(
+                weights.getOrDefault(e.getKey(), CacheType.OTHER.getRetentionWeight()),
+                e.getValue().hits, e.getValue().lastHit, now)));
+        for (int i = 0; i < storeExcess; i++) {
+            String key = candidates.get(i).getKey();
+            globalStore.remove(key);
+            // 同时移除当前世界中没有本地覆盖的引用
+            for (Map.Entry<CacheType, Map<String, CacheRef>> entry : categorizedCache.entrySet()) {
+                CacheRef ref = entry.getValue().get(key);
+                if (ref != null && !ref.isOverride()) {
+                    entry.getValue().remove(key);
+                    markDirty(entry.getKey());
+                }
+            }
+        }
+        storeDirty = true;
+        rebuildPairIndex();
+        return storeExcess;
+    }
+
+    /**
+     * 计算条目的保留价值：分区权重 × 命中次数的对数 ÷ 距最后命中的天数
+     */
+    private static double retentionScore(double weight, int hits, long lastHit, long now) {
+        double idleDays = Math.max(0, now - lastHit) / (double) DAY_MS;
+        return weight * (Math.log(2 + hits) / Math.log(2)) / (1.0 + idleDays);
+    }
+
+    /**
+     * 将缓存导出为只读翻译包
+     * 当前世界的本地覆盖优先，其余每个语言对保留命中次数最多的译文（不同翻译接口的译文合并）
+     * @return 导出的条目数
+     */
+    public int exportPack(Path file) throws IOException {
+        TranslationPack.Writer writer = new TranslationPack.Writer();
+
+        for (Map<String, CacheRef> typeCache : categorizedCache.values()) {
+            for (Map.Entry<String, CacheRef> entry : typeCache.entrySet()) {
+                CacheRef ref = entry.getValue();
+                StoreEntry stored = globalStore.get(entry.getKey());
+                if (ref.isOverride() && stored != null) {
+                    writer.add(ref.text, stored.sourceLang, stored.targetLang, ref.translation);
+                }
+            }
+        }
+
+        List<StoreEntry> entries = new ArrayList<>(globalStore.values());
+        entries.sort(Comparator.comparingInt((StoreEntry e) -> e.hits).reversed());
+        for (StoreEntry entry : entries) {
+            writer.add(entry.text, entry.sourceLang, entry.targetLang, entry.translation);
+        }
+
+        int count = writer.write(file);
+        SimpleTranslation.LOGGER.info("已导出翻译包 {}（{} 条）", file, count);
+        return count;
+    }
+
     /**
      * 获取当前世界名称
      */
     public String getCurrentWorldName() {
         return currentWorldName;
     }
-    
+
     /**
      * 迁移旧的缓存文件到新位置
      */
@@ -0,0 +1,194 @@
+package translation.modid.cache;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 预计算翻译包 - 只读、内存映射的二进制文件
+ *
+ * 文件格式（大端序）：
+ * <pre>
+ * int     魔数 'STPK'
+ * int     版本
+ * int     条目数 N
+ * N × 20  索引：内容哈希（16 字节，按无符号顺序排序）+ 译文偏移（int）
+ * ...     数据：译文字节长度（int）+ UTF-8 译文
+ * </pre>
+ * 内容哈希与全局存储的语言对哈希相同（原文+源语言+目标语言），与翻译接口无关。
+ */
+public class TranslationPack {
+    public static final String FILE_EXTENSION = ".stpack";
+
+    private static final int MAGIC = 0x5354504B; // "STPK"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 12;
+    private static final int INDEX_ENTRY_SIZE = 20;
+
+    private final String name;
+    private final MappedByteBuffer buffer;
+    private final int count;
+
+    private TranslationPack(String name, MappedByteBuffer buffer, int count) {
+        this.name = name;
+        this.buffer = buffer;
+        this.count = count;
+    }
+
+    /**
+     * 以只读方式映射翻译包文件
+     */
+    public static TranslationPack open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+                throw new IOException("翻译包大小无效: " + size);
+            }
+            // 映射在通道关闭后仍然有效
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt(0) != MAGIC) {
+                throw new IOException("不是有效的翻译包文件");
+            }
+            int version = buffer.getInt(4);
+            if (version != VERSION) {
+                throw new IOException("不支持的翻译包版本: " + version);
+            }
+            int count = buffer.getInt(8);
+            if (count < 0 || HEADER_SIZE + (long) count * INDEX_ENTRY_SIZE > size) {
+                throw new IOException("翻译包索引损坏");
+            }
+            return new TranslationPack(file.getFileName().toString(), buffer, count);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    /**
+     * 查找译文（二分查找索引，不加载整个文件）
+     * @return 译文，未找到时返回 null
+     */
+    public String get(String text, CacheNamespace namespace) {
+        if (count == 0 || text == null) {
+            return null;
+        }
+        byte[] digest = ContentHash.digest(text, namespace.getSourceLang(), namespace.getTargetLang());
+        ByteBuffer key = ByteBuffer.wrap(digest);
+        long high = key.getLong(0);
+        long low = key.getLong(8);
+
+        int lo = 0;
+        int hi = count - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int position = HEADER_SIZE + mid * INDEX_ENTRY_SIZE;
+            int cmp = Long.compareUnsigned(buffer.getLong(position), high);
+            if (cmp == 0) {
+                cmp = Long.compareUnsigned(buffer.getLong(position + 8), low);
+            }
+            if (cmp < 0) {
+                lo = mid + 1;
+            } else if (cmp > 0) {
+                hi = mid - 1;
+            } else {
+                return readString(buffer.getInt(position + 16));
+            }
+        }
+        return null;
+    }
+
+    private String readString(int offset) {
+        if (offset < 0 || offset + 4 > buffer.capacity()) {
+            return null;
+        }
+        int length = buffer.getInt(offset);
+        if (length < 0 || offset + 4 + length > buffer.capacity()) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(offset + 4, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 翻译包写入器
+     */
+    public static class Writer {
+        private final List<PackEntry> entries = new ArrayList<>();
+
+        public void add(String text, String sourceLang, String targetLang, String translation) {
+            ByteBuffer key = ByteBuffer.wrap(ContentHash.digest(text, sourceLang, targetLang));
+            entries.add(new PackEntry(key.getLong(0), key.getLong(8), translation));
+        }
+
+        /**
+         * 写入翻译包文件
+         * @return 去重后写入的条目数
+         */
+        public int write(Path file) throws IOException {
+            // 稳定排序，相同的键保持添加顺序
+            entries.sort((a, b) -> {
+                int cmp = Long.compareUnsigned(a.high, b.high);
+                return cmp != 0 ? cmp : Long.compareUnsigned(a.low, b.low);
+            });
+
+            // 去除重复的键（保留先添加的条目）
+            List<PackEntry> unique = new ArrayList<>(entries.size());
+            for (PackEntry entry : entries) {
+                PackEntry last = unique.isEmpty() ? null : unique.get(unique.size() - 1);
+                if (last == null || last.high != entry.high || last.low != entry.low) {
+                    unique.add(entry);
+                }
+            }
+
+            List<byte[]> data = new ArrayList<>(unique.size());
+            int offset = HEADER_SIZE + unique.size() * INDEX_ENTRY_SIZE;
+            ByteBuffer index = ByteBuffer.allocate(HEADER_SIZE + unique.size() * INDEX_ENTRY_SIZE);
+            index.putInt(MAGIC).putInt(VERSION).putInt(unique.size());
+            for (PackEntry entry : unique) {
+                byte[] bytes = entry.translation.getBytes(StandardCharsets.UTF_8);
+                data.add(bytes);
+                index.putLong(entry.high).putLong(entry.low).putInt(offset);
+                offset += 4 + bytes.length;
+            }
+
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+                out.write(index.array());
+                ByteBuffer length = ByteBuffer.allocate(4);
+                for (byte[] bytes : data) {
+                    length.clear();
+                    out.write(length.putInt(bytes.length).array());
+                    out.write(bytes);
+                }
+            }
+            return unique.size();
+        }
+    }
+
+    private static class PackEntry {
+        final long high;
+        final long low;
+        final String translation;
+
+        PackEntry(long high, long low, String translation) {
+            this.high = high;
+            this.low = low;
+            this.translation = translation;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package translation.modid.cache;
+
+import translation.modid.SimpleTranslation;
+import translation.modid.config.TranslationConfig;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * 翻译包管理器 - 启动时加载 config/simple-translation/packs/ 下的翻译包
+ *
+ * 查找顺序由配置决定：translationPacks 中列出的包按列出顺序优先，其余包按文件名排序；
+ * packsOverrideCache 决定翻译包在本地缓存之前还是之后查找。
+ */
+public class TranslationPackManager {
+    private static TranslationPackManager instance;
+
+    private volatile List<TranslationPack> packs = Collections.emptyList();
+
+    private TranslationPackManager() {
+        reload();
+    }
+
+    public static TranslationPackManager getInstance() {
+        if (instance == null) {
+            instance = new TranslationPackManager();
+        }
+        return instance;
+    }
+
+    /**
+     * 翻译包目录
+     */
+    public static Path getPacksDir() {
+        return Paths.get(System.getProperty("user.dir"), "config", "simple-translation", "packs");
+    }
+
+    /**
+     * 重新扫描并映射翻译包
+     */
+    public void reload() {
+        Path dir = getPacksDir();
+        List<Path> files = new ArrayList<>();
+        if (Files.isDirectory(dir)) {
+            try (Stream<Path> stream = Files.list(dir)) {
+                stream.filter(path -> path.getFileName().toString().endsWith(TranslationPack.FILE_EXTENSION))
+                        .sorted()
+                        .forEach(files::add);
+            } catch (Exception e) {
+                SimpleTranslation.LOGGER.error("扫描翻译包目录失败", e);
+            }
+        }
+
+        // 按配置的优先级排序：列出的包在前（按列出顺序），未列出的包在后（按文件名）
+        List<String> priority = TranslationConfig.getInstance().translationPacks;
+        if (priority != null && !priority.isEmpty()) {
+            files.sort((a, b) -> Integer.compare(
+                    priorityOf(priority, a.getFileName().toString()),
+                    priorityOf(priority, b.getFileName().toString())));
+        }
+
+        List<TranslationPack> loaded = new ArrayList<>();
+        int totalEntries = 0;
+        for (Path file : files) {
+            try {
+                TranslationPack pack = TranslationPack.open(file);
+                loaded.add(pack);
+                totalEntries += pack.size();
+                SimpleTranslation.LOGGER.info("已加载翻译包 {}（{} 条）", pack.getName(), pack.size());
+            } catch (Exception e) {
+                SimpleTranslation.LOGGER.warn("加载翻译包失败: {} - {}", file.getFileName(), e.getMessage());
+            }
+        }
+        packs = Collections.unmodifiableList(loaded);
+
+        if (!loaded.isEmpty()) {
+            SimpleTranslation.LOGGER.info("共加载 {} 个翻译包，{} 条译文", loaded.size(), totalEntries);
+        }
+    }
+
+    private static int priorityOf(List<String> priority, String fileName) {
+        int index = priority.indexOf(fileName);
+        if (index < 0) {
+            // 允许省略扩展名
+            index = priority.indexOf(fileName.substring(0, fileName.length() - TranslationPack.FILE_EXTENSION.length()));
+        }
+        return index < 0 ? Integer.MAX_VALUE : index;
+    }
+
+    /**
+     * 按优先级在所有翻译包中查找译文
+     * @return 译文，未找到时返回 null
+     */
+    public String get(String text, CacheNamespace namespace) {
+        for (TranslationPack pack : packs) {
+            String result = pack.get(text, namespace);
+            if (result != null) {
+                return result;
+            }
+        }
+        return null;
+    }
+
+    public boolean isEmpty() {
+        return packs.isEmpty();
+    }
+
+    /**
+     * 已加载的翻译包数量
+     */
+    public int getPackCount() {
+        return packs.size();
+    }
+
+    /**
+     * 导出目录（不在翻译包目录下，避免导出的文件被自动加载）
+     */
+    public static Path getExportDir() {
+        return Paths.get(System.getProperty("user.dir"), "config", "simple-translation", "export");
+    }
+}
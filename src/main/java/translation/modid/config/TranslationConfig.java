@@ -7,6 +7,8 @@ import net.fabricmc.loader.api.FabricLoader;
 import java.io.*;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 
 public class TranslationConfig {
     private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
@@ -50,10 +52,17 @@ public class TranslationConfig {
     public boolean translateSignOnSneak = false; // 是否潜行时才翻译告示牌
     public boolean showSignTranslationMessages = false; // 是否显示告示牌翻译提示
     public int translationDelay = 500; // 翻译延迟（毫秒）
+    public int hudStableTime = 1000; // HUD文本（actionbar、标题、boss血条、文字显示实体）保持不变多久后才翻译（毫秒），0为立即翻译
+    public int chatBatchWindow = 300; // 聊天消息合并为一次批量翻译的时间窗口（毫秒）
+    public int chatQueueLimit = 40; // 等待翻译的聊天消息上限，超出时从排队最多的发送者那里丢弃最早的消息
     
     // 缓存配置
     public boolean persistentCache = false; // 是否启用持久化缓存（退出游戏后保留）
     public boolean perWorldCache = false; // 是否为每个世界独立缓存
+    public int cacheMaxEntriesPerPartition = 20000; // 每个缓存分区的最大条目数（0为不限制），超出时在保存前淘汰
+    public int cacheMaxTotalEntries = 200000; // 全局翻译存储的最大条目数（0为不限制）
+    public List<String> translationPacks = new ArrayList<>(); // 翻译包优先级（文件名，靠前的优先，未列出的按文件名排在最后）
+    public boolean packsOverrideCache = true; // 翻译包是否优先于本地缓存（false则只在本地缓存未命中时查找翻译包）
     
     private static TranslationConfig instance;
     
@@ -149,8 +158,15 @@ public class TranslationConfig {
         this.translateSignOnSneak = loaded.translateSignOnSneak;
         this.showSignTranslationMessages = loaded.showSignTranslationMessages;
         this.translationDelay = loaded.translationDelay;
+        this.hudStableTime = loaded.hudStableTime;
+        this.chatBatchWindow = loaded.chatBatchWindow;
+        this.chatQueueLimit = loaded.chatQueueLimit;
         this.persistentCache = loaded.persistentCache;
         this.perWorldCache = loaded.perWorldCache;
+        this.cacheMaxEntriesPerPartition = loaded.cacheMaxEntriesPerPartition;
+        this.cacheMaxTotalEntries = loaded.cacheMaxTotalEntries;
+        this.translationPacks = loaded.translationPacks != null ? loaded.translationPacks : new ArrayList<>();
+        this.packsOverrideCache = loaded.packsOverrideCache;
     }
 }
 
@@ -0,0 +1,344 @@
+package translation.modid.translator;
+
+import translation.modid.cache.CacheNamespace;
+
+/**
+ * 文字脚本检测 - 在发起翻译请求前判断文本是否需要翻译
+ *
+ * 按码点范围统计文本中各脚本的字母数量，与配置的目标语言比较：目标语言的文字占多数时视为已经是目标语言；
+ * 只有数字和符号、链接、坐标、玩家名这类翻译不了的文本也直接跳过。
+ * 单次遍历、不分配内存，ASCII 字符走快速分支，可以在渲染和数据包路径上直接调用。
+ */
+public final class ScriptDetector {
+    private static final int SCRIPT_OTHER = 0;
+    private static final int SCRIPT_LATIN = 1;
+    private static final int SCRIPT_HAN = 2;
+    private static final int SCRIPT_KANA = 3;
+    private static final int SCRIPT_HANGUL = 4;
+    private static final int SCRIPT_CYRILLIC = 5;
+    private static final int SCRIPT_GREEK = 6;
+    private static final int SCRIPT_ARABIC = 7;
+    private static final int SCRIPT_HEBREW = 8;
+    private static final int SCRIPT_THAI = 9;
+
+    // 表意/音节文字一个字符大约相当于三个拉丁字母，比较多少时按此加权
+    private static final int SYLLABIC_WEIGHT = 3;
+
+    // 上次解析的目标语言（按引用比较，CacheNamespace 中的值只在配置变化时更换）
+    private static volatile Target cachedTarget;
+
+    private ScriptDetector() {
+    }
+
+    /**
+     * 文本是否需要翻译为当前配置的目标语言
+     * @return 空文本、已经是目标语言、只有数字符号、链接、坐标或玩家名时返回 false
+     */
+    public static boolean needsTranslation(String text) {
+        return needsTranslation(text, CacheNamespace.current().getTargetLang());
+    }
+
+    /**
+     * 文本是否需要翻译为指定的目标语言
+     */
+    public static boolean needsTranslation(String text, String targetLang) {
+        if (text == null) {
+            return false;
+        }
+        Target target = targetOf(targetLang);
+
+        int length = text.length();
+        int start = 0;
+        int end = length;
+        while (start < end && Character.isWhitespace(text.charAt(start))) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+        if (start == end) {
+            return false;
+        }
+
+        int targetWeight = 0;
+        int foreignWeight = 0;
+        int hanCount = 0;
+        int kanaCount = 0;
+        boolean nonAsciiLatin = false;
+        boolean hasWhitespace = false;
+        // 坐标：所有字母都是单独的 x/y/z
+        boolean onlyAxisLetters = true;
+        int letterRun = 0;
+        char runLetter = 0;
+
+        int i = start;
+        while (i < end) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                // ASCII 快速分支
+                i++;
+                if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')) {
+                    letterRun++;
+                    runLetter = c;
+                    foreignWeight += target.script == SCRIPT_LATIN ? 0 : 1;
+                    targetWeight += target.script == SCRIPT_LATIN ? 1 : 0;
+                } else {
+                    if (letterRun > 0 && !isAxisRun(letterRun, runLetter)) {
+                        onlyAxisLetters = false;
+                    }
+                    letterRun = 0;
+                    if (c == ' ' || c == '\t' || c == '\n' || c == '\r') {
+                        hasWhitespace = true;
+                    }
+                }
+                continue;
+            }
+
+            int codePoint = Character.codePointAt(text, i);
+            i += Character.charCount(codePoint);
+            if (letterRun > 0 && !isAxisRun(letterRun, runLetter)) {
+                onlyAxisLetters = false;
+            }
+            letterRun = 0;
+            if (Character.isWhitespace(codePoint)) {
+                hasWhitespace = true;
+                continue;
+            }
+            int script = scriptOf(codePoint);
+            if (script == SCRIPT_OTHER) {
+                if (Character.isLetter(codePoint)) {
+                    onlyAxisLetters = false;
+                    foreignWeight++;
+                }
+                continue;
+            }
+            onlyAxisLetters = false;
+            if (script == SCRIPT_LATIN) {
+                nonAsciiLatin = true;
+            } else if (script == SCRIPT_HAN) {
+                hanCount++;
+            } else if (script == SCRIPT_KANA) {
+                kanaCount++;
+            }
+            int weight = isSyllabic(script) ? SYLLABIC_WEIGHT : 1;
+            if (script == target.script || (script == SCRIPT_HAN && target.script == SCRIPT_KANA)) {
+                targetWeight += weight;
+            } else {
+                foreignWeight += weight;
+            }
+        }
+        if (letterRun > 0 && !isAxisRun(letterRun, runLetter)) {
+            onlyAxisLetters = false;
+        }
+
+        // 没有字母（数字、符号）或坐标
+        if (targetWeight == 0 && foreignWeight == 0) {
+            return false;
+        }
+        if (onlyAxisLetters) {
+            return false;
+        }
+        // 单个词：链接、玩家名
+        if (!hasWhitespace && (isUrl(text, start, end) || isUsername(text, start, end))) {
+            return false;
+        }
+
+        if (target.script == SCRIPT_KANA && kanaCount == 0) {
+            // 没有假名的汉字文本是中文，不是日语
+            targetWeight -= hanCount * SYLLABIC_WEIGHT;
+            foreignWeight += hanCount * SYLLABIC_WEIGHT;
+        }
+        if (target.script == SCRIPT_LATIN) {
+            // 拉丁字母的语言无法按脚本区分，只把纯 ASCII 文本视为英语
+            return !(target.english && !nonAsciiLatin && foreignWeight == 0);
+        }
+        return targetWeight == 0 || targetWeight < foreignWeight;
+    }
+
+    private static boolean isAxisRun(int length, char letter) {
+        return length == 1 && (letter == 'x' || letter == 'y' || letter == 'z' || letter == 'X' || letter == 'Y' || letter == 'Z');
+    }
+
+    private static boolean isSyllabic(int script) {
+        return script == SCRIPT_HAN || script == SCRIPT_KANA || script == SCRIPT_HANGUL || script == SCRIPT_THAI;
+    }
+
+    private static int scriptOf(int codePoint) {
+        if (codePoint <= 0x024F) {
+            // Latin-1 补充和拉丁扩展
+            return codePoint >= 0x00C0 && codePoint != 0x00D7 && codePoint != 0x00F7 ? SCRIPT_LATIN : SCRIPT_OTHER;
+        }
+        if (codePoint >= 0x0370 && codePoint <= 0x03FF) {
+            return SCRIPT_GREEK;
+        }
+        if (codePoint >= 0x0400 && codePoint <= 0x052F) {
+            return SCRIPT_CYRILLIC;
+        }
+        if (codePoint >= 0x0590 && codePoint <= 0x05FF) {
+            return SCRIPT_HEBREW;
+        }
+        if (codePoint >= 0x0600 && codePoint <= 0x06FF) {
+            return SCRIPT_ARABIC;
+        }
+        if (codePoint >= 0x0E00 && codePoint <= 0x0E7F) {
+            return SCRIPT_THAI;
+        }
+        if (codePoint >= 0x1E00 && codePoint <= 0x1EFF) {
+            return SCRIPT_LATIN;
+        }
+        if (codePoint >= 0x3040 && codePoint <= 0x30FF) {
+            // 长音符号等在平假名/片假名块中，按假名计
+            return codePoint == 0x30FB ? SCRIPT_OTHER : SCRIPT_KANA;
+        }
+        if ((codePoint >= 0x4E00 && codePoint <= 0x9FFF) || (codePoint >= 0x3400 && codePoint <= 0x4DBF)
+                || (codePoint >= 0x20000 && codePoint <= 0x2A6DF) || (codePoint >= 0xF900 && codePoint <= 0xFAFF)) {
+            return SCRIPT_HAN;
+        }
+        if ((codePoint >= 0xAC00 && codePoint <= 0xD7AF) || (codePoint >= 0x1100 && codePoint <= 0x11FF)
+                || (codePoint >= 0x3130 && codePoint <= 0x318F)) {
+            return SCRIPT_HANGUL;
+        }
+        if (codePoint >= 0xFF66 && codePoint <= 0xFF9F) {
+            // 半角片假名
+            return SCRIPT_KANA;
+        }
+        if ((codePoint >= 0xFF21 && codePoint <= 0xFF3A) || (codePoint >= 0xFF41 && codePoint <= 0xFF5A)) {
+            // 全角拉丁字母
+            return SCRIPT_LATIN;
+        }
+        return SCRIPT_OTHER;
+    }
+
+    /**
+     * 整段文本是一个链接（http://、https://、www. 开头，或 域名.顶级域名 形式）
+     */
+    private static boolean isUrl(String text, int start, int end) {
+        if (text.regionMatches(true, start, "http://", 0, 7) || text.regionMatches(true, start, "https://", 0, 8)
+                || text.regionMatches(true, start, "www.", 0, 4)) {
+            return true;
+        }
+        // example.com、play.server.net/store
+        int dot = -1;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c == '/') {
+                break;
+            }
+            if (c == '.') {
+                dot = i;
+            } else if (!(c < 0x80 && (Character.isLetterOrDigit(c) || c == '-'))) {
+                return false;
+            }
+        }
+        if (dot <= start) {
+            return false;
+        }
+        int tldLength = 0;
+        for (int i = dot + 1; i < end && text.charAt(i) != '/'; i++) {
+            char c = text.charAt(i);
+            if (!((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z'))) {
+                return false;
+            }
+            tldLength++;
+        }
+        return tldLength >= 2 && tldLength <= 6;
+    }
+
+    /**
+     * 整段文本是一个玩家名：3-16个字母数字下划线，并且带有下划线或同时带有字母和数字（普通单词仍然翻译）
+     * 也包括 @玩家名 形式的提及
+     */
+    private static boolean isUsername(String text, int start, int end) {
+        boolean mention = text.charAt(start) == '@';
+        if (mention) {
+            start++;
+        }
+        int length = end - start;
+        if (length < 3 || length > 16) {
+            return false;
+        }
+        boolean underscore = false;
+        boolean digit = false;
+        boolean letter = false;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c == '_') {
+                underscore = true;
+            } else if (c >= '0' && c <= '9') {
+                digit = true;
+            } else if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')) {
+                letter = true;
+            } else {
+                return false;
+            }
+        }
+        return letter && (underscore || digit || mention);
+    }
+
+    private static Target targetOf(String targetLang) {
+        Target target = cachedTarget;
+        if (target == null || target.lang != targetLang) {
+            target = new Target(targetLang, scriptOfLanguage(targetLang), isEnglish(targetLang));
+            cachedTarget = target;
+        }
+        return target;
+    }
+
+    private static int scriptOfLanguage(String lang) {
+        String code = primaryCode(lang);
+        switch (code) {
+            case "zh":
+            case "cht":
+            case "cn":
+                return SCRIPT_HAN;
+            case "ja":
+            case "jp":
+                return SCRIPT_KANA;
+            case "ko":
+            case "kor":
+                return SCRIPT_HANGUL;
+            case "ru":
+            case "uk":
+            case "be":
+            case "bg":
+            case "sr":
+            case "mk":
+                return SCRIPT_CYRILLIC;
+            case "el":
+                return SCRIPT_GREEK;
+            case "ar":
+            case "fa":
+            case "ur":
+                return SCRIPT_ARABIC;
+            case "he":
+            case "iw":
+                return SCRIPT_HEBREW;
+            case "th":
+                return SCRIPT_THAI;
+            default:
+                return SCRIPT_LATIN;
+        }
+    }
+
+    private static boolean isEnglish(String lang) {
+        return "en".equals(primaryCode(lang));
+    }
+
+    /**
+     * 语言代码的主要部分：zh-CN、zh_TW -> zh
+     */
+    private static String primaryCode(String lang) {
+        if (lang == null) {
+            return "zh";
+        }
+        String code = lang.trim().toLowerCase();
+        int separator = code.indexOf('-');
+        if (separator < 0) {
+            separator = code.indexOf('_');
+        }
+        return separator > 0 ? code.substring(0, separator) : code;
+    }
+
+    private record Target(String lang, int script, boolean english) {
+    }
+}
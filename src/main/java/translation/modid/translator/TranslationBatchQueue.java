@@ -0,0 +1,127 @@
+package translation.modid.translator;
+
+import translation.modid.SimpleTranslation;
+import translation.modid.cache.CacheNamespace;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * 翻译批处理队列
+ * 收集一段时间内（通常是一个客户端tick内处理的一批数据包）需要翻译的文本，flush 时合并为一次批量翻译请求。
+ * 同一文本在排队或翻译期间只提交一次。
+ */
+public class TranslationBatchQueue {
+    private final String name;
+    private final Listener onTranslated;
+    private final Consumer<String> onFailed;
+
+    // 等待下一次 flush 的文本（保持加入顺序）
+    private final List<String> queued = new ArrayList<>();
+
+    // 已排队或正在翻译的文本
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    /**
+     * @param name         日志中使用的名称
+     * @param onTranslated 翻译完成时调用（命名空间, 原文, 译文），在翻译线程中执行；译文为空时不调用
+     */
+    public TranslationBatchQueue(String name, Listener onTranslated) {
+        this(name, onTranslated, text -> {
+        });
+    }
+
+    /**
+     * @param name         日志中使用的名称
+     * @param onTranslated 翻译完成时调用（命名空间, 原文, 译文），在翻译线程中执行；
+     *                     译文与原文相同（专有名词、数字、已经是目标语言）时也调用，表示该文本在这个命名空间下不需要翻译
+     * @param onFailed     批次出错或某条文本没有返回译文时调用（原文），在翻译线程中执行
+     */
+    public TranslationBatchQueue(String name, Listener onTranslated, Consumer<String> onFailed) {
+        this.name = name;
+        this.onTranslated = onTranslated;
+        this.onFailed = onFailed;
+    }
+
+    /**
+     * 加入队列
+     * @return 是否新加入（已在排队或翻译中时返回 false）
+     */
+    public boolean enqueue(String text) {
+        if (text == null || !inFlight.add(text)) {
+            return false;
+        }
+        synchronized (queued) {
+            queued.add(text);
+        }
+        return true;
+    }
+
+    /**
+     * 提交队列中的全部文本为一次批量翻译
+     */
+    public void flush() {
+        List<String> batch;
+        synchronized (queued) {
+            if (queued.isEmpty()) {
+                return;
+            }
+            batch = new ArrayList<>(queued);
+            queued.clear();
+        }
+
+        // 提交时确定命名空间，结果返回时即使配置已切换也写入原命名空间
+        CacheNamespace namespace = CacheNamespace.current();
+        SimpleTranslation.LOGGER.debug("[{}] 批量翻译 {} 条文本", name, batch.size());
+        TranslationManager.getInstance().translateBatch(batch, namespace)
+                .whenComplete((results, error) -> {
+                    if (error != null) {
+                        SimpleTranslation.LOGGER.error("[{}] 批量翻译失败: {}", name, error.getMessage());
+                    }
+                    for (String text : batch) {
+                        String translated = results != null ? results.get(text) : null;
+                        if (translated != null && !translated.isEmpty()) {
+                            onTranslated.onTranslated(namespace, text, translated);
+                        } else {
+                            onFailed.accept(text);
+                        }
+                    }
+                    batch.forEach(inFlight::remove);
+                });
+    }
+
+    /**
+     * 从队列中移除还没有提交的文本（已经提交的请求无法撤回）
+     * @return 是否移除成功
+     */
+    public boolean cancel(String text) {
+        synchronized (queued) {
+            if (queued.remove(text)) {
+                inFlight.remove(text);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 清空队列（不影响已经提交的请求）
+     */
+    public void clear() {
+        synchronized (queued) {
+            queued.forEach(inFlight::remove);
+            queued.clear();
+        }
+    }
+
+    /**
+     * 翻译结果回调
+     */
+    @FunctionalInterface
+    public interface Listener {
+        void onTranslated(CacheNamespace namespace, String text, String translated);
+    }
+}
@@ -1,8 +1,10 @@
 package translation.modid.translator;
 
 import translation.modid.SimpleTranslation;
+import translation.modid.cache.CacheNamespace;
 import translation.modid.cache.TranslationCacheManager;
 import translation.modid.cache.TranslationCacheManager.CacheType;
+import translation.modid.cache.TranslationPackManager;
 import translation.modid.config.TranslationConfig;
 
 import java.util.*;
@@ -16,7 +18,8 @@ public class TranslationManager {
     private FreeTranslator freeTranslator;
     private YoudaoFreeTranslator youdaoFreeTranslator;
     private LLMTranslator llmTranslator;
-    private final Map<String, String> translationCache = new ConcurrentHashMap<>();
+    // 内存缓存：命名空间（语言对+翻译接口）-> (原文 -> 译文)，多个命名空间可同时保留
+    private final Map<CacheNamespace, Map<String, String>> translationCache = new ConcurrentHashMap<>();
     private final Map<String, Long> pendingTranslations = new ConcurrentHashMap<>();
     
     private TranslationManager() {
@@ -51,6 +54,59 @@ public class TranslationManager {
                 config.llmSystemPrompt
             );
         }
+        TranslationPackManager.getInstance().reload();
+    }
+    
+    private Map<String, String> memoryCache(CacheNamespace namespace) {
+        return translationCache.computeIfAbsent(namespace, k -> new ConcurrentHashMap<>());
+    }
+    
+    /**
+     * 查找内存缓存：优先当前命名空间，其次同一语言对下其他翻译接口的译文
+     */
+    private String getFromMemory(CacheNamespace namespace, String text) {
+        Map<String, String> exact = translationCache.get(namespace);
+        String result = exact != null ? exact.get(text) : null;
+        if (result != null) {
+            return result;
+        }
+        for (Map.Entry<CacheNamespace, Map<String, String>> entry : translationCache.entrySet()) {
+            if (!entry.getKey().equals(namespace) && entry.getKey().hasSameLanguagePair(namespace)) {
+                result = entry.getValue().get(text);
+                if (result != null) {
+                    return result;
+                }
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * 查找本地译文来源：翻译包（只读）和持久化缓存，先后顺序由 packsOverrideCache 决定
+     */
+    private String getFromOfflineSources(CacheType cacheType, String text, CacheNamespace namespace) {
+        TranslationConfig config = TranslationConfig.getInstance();
+        TranslationPackManager packManager = TranslationPackManager.getInstance();
+        
+        if (config.packsOverrideCache) {
+            String packed = packManager.get(text, namespace);
+            if (packed != null) {
+                return packed;
+            }
+        }
+        
+        if (config.persistentCache) {
+            // 单次查找，同时记录命中统计
+            String cached = TranslationCacheManager.getInstance().get(cacheType, text, namespace);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        
+        if (!config.packsOverrideCache) {
+            return packManager.get(text, namespace);
+        }
+        return null;
     }
     
     /**
@@ -62,6 +118,14 @@ public class TranslationManager {
         return translate(text, CacheType.OTHER);
     }
     
+    /**
+     * 翻译文本（默认类型：OTHER）到指定命名空间
+     * @param namespace 调用方发起请求时确定的命名空间，调用方自己的缓存也应写入该命名空间
+     */
+    public CompletableFuture<String> translate(String text, CacheNamespace namespace) {
+        return translate(text, CacheType.OTHER, true, namespace);
+    }
+    
     /**
      * 翻译文本（指定缓存类型）
      * @param text 原文
@@ -69,6 +133,26 @@ public class TranslationManager {
      * @return 翻译结果的CompletableFuture
      */
     public CompletableFuture<String> translate(String text, CacheType cacheType) {
+        return translate(text, cacheType, true);
+    }
+    
+    /**
+     * 翻译文本
+     * @param text 原文
+     * @param cacheType 缓存分区类型
+     * @param persist 是否查找和写入持久化缓存；拼接后的批量文本几乎不会再次出现，不需要持久化
+     * @return 翻译结果的CompletableFuture
+     */
+    public CompletableFuture<String> translate(String text, CacheType cacheType, boolean persist) {
+        // 请求开始时确定命名空间，翻译完成时即使配置已切换也写入原命名空间
+        return translate(text, cacheType, persist, CacheNamespace.current());
+    }
+    
+    /**
+     * 翻译文本到指定命名空间
+     * @param namespace 发起请求时确定的命名空间
+     */
+    public CompletableFuture<String> translate(String text, CacheType cacheType, boolean persist, CacheNamespace namespace) {
         TranslationConfig config = TranslationConfig.getInstance();
         
         if (!config.enabled) {
@@ -76,61 +160,97 @@ public class TranslationManager {
         }
         
         // 先检查内存缓存
-        if (translationCache.containsKey(text)) {
-            return CompletableFuture.completedFuture(translationCache.get(text));
+        String memory = getFromMemory(namespace, text);
+        if (memory != null) {
+            return CompletableFuture.completedFuture(memory);
         }
         
-        // 检查持久化缓存（如果启用）
-        if (config.persistentCache) {
-            TranslationCacheManager cacheManager = TranslationCacheManager.getInstance();
-            if (cacheManager.contains(cacheType, text)) {
-                String cached = cacheManager.get(cacheType, text);
-                // 同时放入内存缓存以加快后续访问
-                translationCache.put(text, cached);
-                return CompletableFuture.completedFuture(cached);
-            }
+        // 检查翻译包和持久化缓存
+        String offline = persist ? getFromOfflineSources(cacheType, text, namespace) : null;
+        if (offline != null) {
+            // 同时放入内存缓存以加快后续访问
+            memoryCache(namespace).put(text, offline);
+            return CompletableFuture.completedFuture(offline);
         }
         
         // 检查是否正在翻译
-        Long pendingTime = pendingTranslations.get(text);
+        String pendingKey = namespace + "\n" + text;
+        Long pendingTime = pendingTranslations.get(pendingKey);
         if (pendingTime != null && System.currentTimeMillis() - pendingTime < 5000) {
             return CompletableFuture.completedFuture(null);
         }
         
         // 标记为正在翻译
-        pendingTranslations.put(text, System.currentTimeMillis());
+        pendingTranslations.put(pendingKey, System.currentTimeMillis());
         
         // 开始翻译
-        return translateWithApi(text, config.sourceLang, config.targetLang)
+        return translateWithApi(text, namespace.getSourceLang(), namespace.getTargetLang())
                 .thenApply(result -> {
                     if (result != null) {
                         // 保存到内存缓存
-                        translationCache.put(text, result);
+                        memoryCache(namespace).put(text, result);
                         
                         // 如果启用了持久化缓存，也保存到文件（指定类型）
-                        if (config.persistentCache) {
+                        if (persist && config.persistentCache) {
                             TranslationCacheManager cacheManager = TranslationCacheManager.getInstance();
-                            cacheManager.put(cacheType, text, result);
-                            // 定期保存到文件（每100条保存一次）
-                            if (cacheManager.size() % 100 == 0) {
-                                cacheManager.saveCache();
-                            }
+                            cacheManager.put(cacheType, text, result, namespace);
+                            // 按各分区的保存间隔写入有修改的分区文件
+                            cacheManager.saveIfDue();
                         }
                         
                         if (SimpleTranslation.LOGGER.isDebugEnabled()) {
                             SimpleTranslation.LOGGER.debug("[{}] 翻译完成: {} -> {}", cacheType.getDisplayName(), text, result);
                         }
                     }
-                    pendingTranslations.remove(text);
+                    pendingTranslations.remove(pendingKey);
                     return result;
                 })
                 .exceptionally(e -> {
                     SimpleTranslation.LOGGER.warn("翻译失败: {}", e.getMessage());
-                    pendingTranslations.remove(text);
+                    pendingTranslations.remove(pendingKey);
                     return null;
                 });
     }
     
+    /**
+     * 只查找已有的译文（内存缓存、翻译包和持久化缓存），不发起翻译请求
+     * @return 译文，没有时返回 null
+     */
+    public String getCachedTranslation(String text, CacheType cacheType) {
+        if (!TranslationConfig.getInstance().enabled) {
+            return null;
+        }
+        CacheNamespace namespace = CacheNamespace.current();
+        String memory = getFromMemory(namespace, text);
+        if (memory != null) {
+            return memory;
+        }
+        String offline = getFromOfflineSources(cacheType, text, namespace);
+        if (offline != null) {
+            memoryCache(namespace).put(text, offline);
+        }
+        return offline;
+    }
+    
+    /**
+     * 保存单条译文到内存缓存和持久化缓存（例如从批量翻译结果中拆分出的译文）
+     */
+    public void putTranslation(String text, String translation, CacheType cacheType) {
+        putTranslation(text, translation, cacheType, CacheNamespace.current());
+    }
+    
+    /**
+     * 保存单条译文到指定命名空间（发起请求时确定的命名空间）
+     */
+    public void putTranslation(String text, String translation, CacheType cacheType, CacheNamespace namespace) {
+        memoryCache(namespace).put(text, translation);
+        if (TranslationConfig.getInstance().persistentCache) {
+            TranslationCacheManager cacheManager = TranslationCacheManager.getInstance();
+            cacheManager.put(cacheType, text, translation, namespace);
+            cacheManager.saveIfDue();
+        }
+    }
+    
     private CompletableFuture<String> translateWithApi(String text, String from, String to) {
         TranslationConfig config = TranslationConfig.getInstance();
         
@@ -215,15 +335,26 @@ public class TranslationManager {
      * 获取缓存大小
      */
     public int getCacheSize() {
-        return translationCache.size();
+        int total = 0;
+        for (Map<String, String> cache : translationCache.values()) {
+            total += cache.size();
+        }
+        return total;
     }
     
     /**
-     * 批量翻译文本（仅支持LLM）
+     * 批量翻译文本（仅支持LLM），与单条翻译一样查找和写入持久化缓存（OTHER 分区）
      * @param texts 要翻译的文本列表
      * @return 翻译结果的CompletableFuture，返回Map<原文, 译文>
      */
     public CompletableFuture<Map<String, String>> translateBatch(List<String> texts) {
+        return translateBatch(texts, CacheNamespace.current());
+    }
+    
+    /**
+     * 批量翻译文本到指定命名空间（调用方在提交请求时确定命名空间，结果也写入该命名空间）
+     */
+    public CompletableFuture<Map<String, String>> translateBatch(List<String> texts, CacheNamespace namespace) {
         TranslationConfig config = TranslationConfig.getInstance();
         
         if (!config.enabled || texts == null || texts.isEmpty()) {
@@ -235,8 +366,15 @@ public class TranslationManager {
         List<String> toTranslate = new ArrayList<>();
         
         for (String text : texts) {
-            if (translationCache.containsKey(text)) {
-                cachedResults.put(text, translationCache.get(text));
+            String cached = getFromMemory(namespace, text);
+            if (cached == null) {
+                cached = getFromOfflineSources(CacheType.OTHER, text, namespace);
+                if (cached != null) {
+                    memoryCache(namespace).put(text, cached);
+                }
+            }
+            if (cached != null) {
+                cachedResults.put(text, cached);
             } else {
                 toTranslate.add(text);
             }
@@ -251,7 +389,7 @@ public class TranslationManager {
             // 如果不是LLM，回退到单个翻译
             List<CompletableFuture<Map.Entry<String, String>>> futures = new ArrayList<>();
             for (String text : toTranslate) {
-                CompletableFuture<Map.Entry<String, String>> future = translate(text)
+                CompletableFuture<Map.Entry<String, String>> future = translate(text, CacheType.OTHER, true, namespace)
                         .thenApply(result -> new AbstractMap.SimpleEntry<>(text, result));
                 futures.add(future);
             }
@@ -270,14 +408,23 @@ public class TranslationManager {
         }
         
         // 使用LLM批量翻译
-        return llmTranslator.translateBatchAsync(toTranslate, config.targetLang)
+        return llmTranslator.translateBatchAsync(toTranslate, namespace.getTargetLang())
                 .thenApply(batchResults -> {
-                    // 将批量翻译结果加入缓存
+                    // 将批量翻译结果加入缓存；启用持久化缓存时也保存到文件
+                    Map<String, String> cache = memoryCache(namespace);
+                    boolean persist = config.persistentCache;
+                    TranslationCacheManager cacheManager = TranslationCacheManager.getInstance();
                     for (Map.Entry<String, String> entry : batchResults.entrySet()) {
                         if (entry.getValue() != null) {
-                            translationCache.put(entry.getKey(), entry.getValue());
+                            cache.put(entry.getKey(), entry.getValue());
+                            if (persist) {
+                                cacheManager.put(CacheType.OTHER, entry.getKey(), entry.getValue(), namespace);
+                            }
                         }
                     }
+                    if (persist) {
+                        cacheManager.saveIfDue();
+                    }
                     // 合并缓存结果和批量翻译结果
                     Map<String, String> allResults = new HashMap<>(cachedResults);
                     allResults.putAll(batchResults);